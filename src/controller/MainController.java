@@ -23,8 +23,8 @@ import view.BaseViewInterface;
 
 public class MainController implements BaseControllerInterface {
 
-  private final BaseModelInterface baseModel;
-  private final AdvancedModelInterface advanceModel;
+  private BaseModelInterface baseModel;
+  private AdvancedModelInterface advanceModel;
   private final BaseViewInterface view;
   private final Readable in;
   private final Appendable out;
@@ -237,6 +237,7 @@ public class MainController implements BaseControllerInterface {
   /**
    * authenticate user credentials.
    * for this assignment we have taken username as admin and password as Asdf@1234.
+   * On success the controller works with the views of the models for the session of the user.
    *
    * @param user username of the user.
    * @param pwd  password of the user.
@@ -245,6 +246,8 @@ public class MainController implements BaseControllerInterface {
   public boolean authenticateCredentials(String user, String pwd) throws IOException {
     if (baseModel.authenticateCredentials(user, pwd) &&
             advanceModel.authenticateCredentials(user, pwd)) {
+      baseModel = baseModel.forSession(user, pwd);
+      advanceModel = advanceModel.forSession(user, pwd);
       view.printStatus("Successfully logged in.\n!!! Welcome !!!", this.out);
       return true;
     } else {
@@ -25,7 +25,7 @@ import view.SwingViewInterface;
  */
 public class SwingController implements SwingControllerInterface {
 
-  private final AdvancedModelInterface advanceModel;
+  private AdvancedModelInterface advanceModel;
   private final SwingViewInterface swingView;
 
   /**
@@ -48,6 +48,7 @@ public class SwingController implements SwingControllerInterface {
     String message;
     try {
       if (advanceModel.authenticateCredentials(user, pwd)) {
+        advanceModel = advanceModel.forSession(user, pwd);
         message = "Login Successful!!";
         swingView.printStatus(swingView.getPanel("flexMenu"), message);
         swingView.resetFields();
@@ -82,19 +83,8 @@ public class SwingController implements SwingControllerInterface {
     int month = Integer.parseInt(date.substring(5, 7));
     int day = Integer.parseInt(date.substring(8, 10));
 
-    try {
-      DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
-      Date weekend = dateFormat.parse(date);
-
-      Calendar cal = Calendar.getInstance();
-      cal.setTime(weekend);
-
-      int weekEnd = cal.get(Calendar.DAY_OF_WEEK);
-      return (year > 2022 || year < 2014 || month > 12 || month < 01 || day > 31 || day < 01
-              || weekEnd == Calendar.SUNDAY || weekEnd == Calendar.SATURDAY);
-    } catch (ParseException e) {
-      throw new RuntimeException("Date cannot be parsed");
-    }
+    return (year > 2022 || year < 2014 || month > 12 || month < 01 || day > 31 || day < 01
+            || !advanceModel.isTradingDay(date));
   }
 
   private boolean checkDollarCostEndDate(String endDate) {
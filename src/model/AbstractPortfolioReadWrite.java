@@ -0,0 +1,440 @@
+package model;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Abstract class which implements ReadWriteInterface for flexible portfolio files independent of
+ * the format the transactions are stored in. A portfolio file holds a snapshot of transactions in
+ * the format of the subclass. New transactions are appended to the TransactionLog of the file and
+ * the snapshot is only rewritten once the log grows beyond the "transaction_log_max_bytes"
+ * property.
+ * This class is package private that is accessible to only classes present in model package.
+ */
+abstract class AbstractPortfolioReadWrite implements ReadWriteInterface<Portfolio> {
+
+  private static final long DEFAULT_LOG_MAX_BYTES = 64 * 1024;
+
+  private final Properties properties;
+  private File ledgerFile;
+  private FileStamp ledgerStamp;
+  private PositionLedger ledger;
+
+  /**
+   * parameterized constructor that is package private to initialize properties object passed
+   * by model.
+   *
+   * @param prop variable of Properties class.
+   */
+  AbstractPortfolioReadWrite(Properties prop) {
+    this.properties = prop;
+  }
+
+  /**
+   * creates an advanced portfolio file which contains stocks and their respective buy quantities,
+   * buy price and buy dates. It also stores stocks and their respective sell quantities, sell price
+   * and sell dates.
+   * An empty file is written in full; otherwise the new transactions are appended to the log of
+   * the file. Sells are validated against the PositionLedger of the file, which is kept from one
+   * write to the next so that consecutive trades do not read the file again.
+   *
+   * @param file      portfolio file to be written.
+   * @param portfolio portfolio object whose data is to be written.
+   */
+  @Override
+  public void writeToFile(File file, Portfolio portfolio) {
+
+    TransactionLog log = new TransactionLog(file);
+    boolean newFile = file.length() == 0;
+
+    if (newFile) {
+      log.delete();
+    }
+
+    if (portfolio.getSymbol() == null || portfolio.getQuantity() == null) {
+      if (newFile) {
+        writeSnapshot(file, new PortfolioHistory(), null);
+      }
+      return;
+    }
+
+    PortfolioHistory history = newFile ? new PortfolioHistory() : null;
+    PositionLedger ledger = newFile ? new PositionLedger() : currentLedger(file);
+    if (ledger == null && portfolio.getOperation() == 's') {
+      ledger = PositionLedger.build(readHistory(file));
+    }
+
+    List<Transaction> transactions;
+    try {
+      transactions = toTransactions(portfolio, ledger);
+    } catch (RuntimeException e) {
+      dropLedger();
+      throw e;
+    }
+
+    if (newFile) {
+      for (Transaction transaction : transactions) {
+        history.add(transaction);
+      }
+      writeSnapshot(file, history, null);
+    } else {
+      append(file, transactions);
+    }
+    keepLedger(file, ledger);
+  }
+
+  /**
+   * turns the stocks of a portfolio object into transactions. Sells are validated against the
+   * ledger and every transaction is recorded in it, so a failed validation leaves the ledger
+   * holding part of the transactions.
+   *
+   * @param portfolio portfolio object with the stocks bought or sold at its date.
+   * @param ledger    ledger of the portfolio, may be null if the portfolio object holds buys.
+   * @return transactions of the portfolio object.
+   */
+  List<Transaction> toTransactions(Portfolio portfolio, PositionLedger ledger) {
+    List<String> symbol = portfolio.getSymbol();
+    List<Double> quantity = portfolio.getQuantity();
+    List<Double> price = portfolio.getPrice();
+    char status = portfolio.getOperation();
+
+    List<Transaction> transactions = new ArrayList<>();
+    for (int i = 0; i < portfolio.getSize(); i++) {
+      Double transactPrice = price.size() != 0 ? price.get(i) : null;
+      Transaction transaction = new Transaction(status == 's' ? 's' : 'b', symbol.get(i),
+              quantity.get(i), portfolio.getDate(), transactPrice);
+
+      if (status == 's') {
+        if (!ledger.isDateValid(symbol.get(i), transaction.getDay())) {
+          throw new RuntimeException("Invalid Transaction." + " Kindly make sure that the " +
+                  "selling date is not before the buying date. " +
+                  "Moreover make sure the stock ticker is present in" +
+                  " the current portfolio");
+        }
+        if (!ledger.isDatePrecedence(symbol.get(i), transaction.getDay())) {
+          throw new RuntimeException("Invalid transaction. Entered date is before the last" +
+                  " entered transaction for " + symbol.get(i));
+        }
+        if (quantity.get(i) > ledger.getQuantity(symbol.get(i), transaction.getDay())) {
+          throw new RuntimeException("Invalid transaction. Quantity of selling shares is greater " +
+                  "than quantity of buying shares at this specific date");
+        }
+      } else if (status != 'b') {
+        continue;
+      }
+
+      transactions.add(transaction);
+      if (ledger != null) {
+        ledger.add(transaction);
+      }
+    }
+    return transactions;
+  }
+
+  /**
+   * appends transactions to the log of a non empty portfolio file. The log is merged into the
+   * file once it grows beyond the "transaction_log_max_bytes" property. The file records the mark
+   * of the merged log, so that the log is not replayed if it cannot be deleted afterwards, while
+   * trades appended to it after that are.
+   * The transactions are written once they are in the log, so a failure to merge the log is
+   * ignored and the merge is tried again on the next append.
+   *
+   * @param file         portfolio file to be written.
+   * @param transactions transactions to be appended.
+   */
+  void append(File file, List<Transaction> transactions) {
+    TransactionLog log = new TransactionLog(file);
+    log.append(transactions);
+    if (log.length() > getLogMaxBytes()) {
+      try {
+        String mark = log.getMark();
+        writeSnapshot(file, readHistory(file), mark);
+        log.delete();
+      } catch (RuntimeException e) {
+        // the log still holds the transactions.
+      }
+    }
+  }
+
+  /**
+   * reads a file and store its data in a portfolio object if valid.
+   *
+   * @param file      portfolio file to read from.
+   * @param portfolio portfolio object whose data is to be updated.
+   * @return Portfolio object.
+   */
+  @Override
+  public Portfolio readFromFile(File file, Portfolio portfolio) {
+
+    try {
+      return generatePortfolio(readHistory(file), portfolio.getDate());
+    } catch (Exception e) {
+      throw new RuntimeException("Error occurred while reading from a file\n" + e.getMessage());
+    }
+  }
+
+  /**
+   * imports every transaction of a custom file into a portfolio file, pricing the stocks with
+   * the price source of the caller so that its cached prices are shared.
+   *
+   * @param source     custom file given by the user.
+   * @param target     empty portfolio file the transactions are written to.
+   * @param stockPrice price source used to price the imported transactions.
+   * @return portfolio object with the first date group imported.
+   */
+  Portfolio importFromFile(File source, File target, BaseStockPriceInterface stockPrice) {
+    try {
+      return importFile(source, target, stockPrice);
+    } catch (Exception e) {
+      throw new RuntimeException("Error occurred while reading from a file\n" + e.getMessage());
+    }
+  }
+
+  /**
+   * returns the ledger of the portfolio file if the one kept from the last write is still
+   * up to date, else null.
+   */
+  private synchronized PositionLedger currentLedger(File file) {
+    if (ledger != null && file.equals(ledgerFile) && FileStamp.of(file).equals(ledgerStamp)) {
+      return ledger;
+    }
+    return null;
+  }
+
+  private synchronized void keepLedger(File file, PositionLedger ledger) {
+    this.ledgerFile = file;
+    this.ledgerStamp = FileStamp.of(file);
+    this.ledger = ledger;
+  }
+
+  private synchronized void dropLedger() {
+    this.ledger = null;
+  }
+
+  /**
+   * reads every transaction of a portfolio, i.e. the ones in the file followed by the ones in its
+   * log.
+   *
+   * @param file portfolio file to read from.
+   * @return transactions of the portfolio.
+   */
+  PortfolioHistory readHistory(File file) {
+    PortfolioHistory history = new PortfolioHistory();
+    readTransactions(file, history::add);
+    return history;
+  }
+
+  /**
+   * hands over every transaction of a portfolio one by one, i.e. the ones in the file followed by
+   * the ones in its log.
+   *
+   * @param file     portfolio file to read from.
+   * @param consumer receives each transaction.
+   */
+  void readTransactions(File file, Consumer<Transaction> consumer) {
+    String mergedLog = null;
+    if (file.length() > 0) {
+      mergedLog = readSnapshot(file, consumer);
+    }
+
+    for (Transaction transaction : new TransactionLog(file).readAfter(mergedLog)) {
+      consumer.accept(transaction);
+    }
+  }
+
+  /**
+   * hands over the transactions stored in a portfolio file one by one, not including its log.
+   *
+   * @param file     non empty portfolio file to read from.
+   * @param consumer receives each transaction.
+   * @return mark of the last log merged into the file, or null if there is none.
+   */
+  abstract String readSnapshot(File file, Consumer<Transaction> consumer);
+
+  /**
+   * writes the given transactions into a portfolio file, replacing its content atomically.
+   *
+   * @param file      portfolio file to be written.
+   * @param history   transactions to be written.
+   * @param mergedLog mark of the log whose transactions are included, or null if there is none.
+   */
+  abstract void writeSnapshot(File file, PortfolioHistory history, String mergedLog);
+
+  /**
+   * returns the parser for the format of the given file, which is told by its extension.
+   *
+   * @param file       portfolio file.
+   * @param properties config properties to be passed to the parser.
+   * @return binary parser for ".pfb" files, else json parser.
+   */
+  static AbstractPortfolioReadWrite forFile(File file, Properties properties) {
+    if (file.getName().endsWith(BinaryReadWrite.FILE_TYPE)) {
+      return new BinaryReadWrite(properties);
+    }
+    return new JsonReadWrite(properties);
+  }
+
+  /**
+   * writes every transaction of a portfolio file into a file of another format, e.g. to import or
+   * export json files. The target file is replaced.
+   *
+   * @param source     portfolio file to read from.
+   * @param target     portfolio file to be written, whose format is told by its extension.
+   * @param properties config properties to be passed to the parsers.
+   */
+  static void convert(File source, File target, Properties properties) {
+    PortfolioHistory history = forFile(source, properties).readHistory(source);
+    new TransactionLog(target).delete();
+    forFile(target, properties).writeSnapshot(target, history, null);
+  }
+
+  private long getLogMaxBytes() {
+    String value = properties.getProperty("transaction_log_max_bytes");
+    return value == null ? DEFAULT_LOG_MAX_BYTES : Long.parseLong(value);
+  }
+
+  /**
+   * returns every transaction on or before the date, sells first with negated quantities. The
+   * date of the returned portfolio object is the one of the last buy on or before the date, or
+   * today if there is none.
+   *
+   * @param history transactions of the portfolio.
+   * @param date    date in yyyy-MM-dd format.
+   * @return portfolio object with the transactions.
+   */
+  Portfolio generatePortfolio(PortfolioHistory history, String date) {
+
+    List<String> symbol = new ArrayList<>();
+    List<Double> quantity = new ArrayList<>();
+    List<Double> price = new ArrayList<>();
+    int threshold = PriceSeries.toEpochDay(date);
+    String lastTransactDate = new SimpleDateFormat("yyyy-MM-dd").format(new Date());
+
+    for (Transaction sell : history.getSells()) {
+      if (sell.getDay() <= threshold) {
+        symbol.add(sell.getSymbol());
+        quantity.add(-1 * sell.getQuantity());
+        if (sell.getPrice() != null) {
+          price.add(sell.getPrice());
+        }
+      }
+    }
+
+    for (Transaction buy : history.getBuys()) {
+      if (buy.getDay() <= threshold) {
+        symbol.add(buy.getSymbol());
+        quantity.add(buy.getQuantity());
+        if (buy.getPrice() != null) {
+          price.add(buy.getPrice());
+        }
+        lastTransactDate = PriceSeries.toDateString(buy.getDay());
+      }
+    }
+    Portfolio pf = new Portfolio(symbol, quantity, price);
+    pf.setDate(lastTransactDate);
+
+    return pf;
+  }
+
+  /**
+   * imports every transaction of a custom file into a portfolio file. The custom file is read in
+   * a single pass, in its own format, and its transactions are grouped by date. Then the buys and
+   * after them the sells are priced and validated date by date, pricing all stocks of a date at
+   * once, and all of them are appended to the log of the portfolio file in one write, so the file
+   * is rewritten at most once however many dates there are.
+   */
+  private Portfolio importFile(File source, File target, BaseStockPriceInterface stockPrice)
+          throws IOException {
+    Set<String> tickers = new HashSet<>(getTickerList(properties));
+    Map<Integer, List<Transaction>> buys = new TreeMap<>();
+    Map<Integer, List<Transaction>> sells = new TreeMap<>();
+
+    forFile(source, properties).readTransactions(source, transaction -> {
+      if (!tickers.contains(transaction.getSymbol())) {
+        throw new RuntimeException("Error generating portfolio at date " + transaction.getDate()
+                + ". Please check input file.");
+      }
+      (transaction.getOperation() == 's' ? sells : buys)
+              .computeIfAbsent(transaction.getDay(), k -> new ArrayList<>()).add(transaction);
+    });
+
+    boolean newFile = target.length() == 0;
+    PositionLedger ledger = newFile ? new PositionLedger()
+            : PositionLedger.build(readHistory(target));
+    List<Transaction> transactions = new ArrayList<>();
+    Portfolio first = null;
+    for (Map<Integer, List<Transaction>> groups : List.of(buys, sells)) {
+      for (Map.Entry<Integer, List<Transaction>> entry : groups.entrySet()) {
+        Portfolio pf = generatePortfolioAtDate(entry.getValue(), groups == sells ? 's' : 'b',
+                PriceSeries.toDateString(entry.getKey()), stockPrice);
+        transactions.addAll(toTransactions(pf, ledger));
+        if (first == null) {
+          first = pf;
+        }
+      }
+    }
+
+    if (first == null) {
+      throw new RuntimeException("No transactions found in " + source.getName());
+    }
+    dropLedger();
+    if (newFile) {
+      PortfolioHistory history = new PortfolioHistory();
+      for (Transaction transaction : transactions) {
+        history.add(transaction);
+      }
+      new TransactionLog(target).delete();
+      writeSnapshot(target, history, null);
+    } else {
+      append(target, transactions);
+    }
+    return first;
+  }
+
+  private Portfolio generatePortfolioAtDate(List<Transaction> transactions, char op, String date,
+                                            BaseStockPriceInterface stockPriceInterface) {
+
+    String[] symbols = new String[transactions.size()];
+    List<Double> quantity = new ArrayList<>();
+    for (int i = 0; i < symbols.length; i++) {
+      symbols[i] = transactions.get(i).getSymbol();
+      quantity.add(transactions.get(i).getQuantity());
+    }
+
+    List<Double> price = new ArrayList<>();
+    for (double p : stockPriceInterface.getStockPricesByApi(symbols, date, properties)) {
+      price.add(p);
+    }
+
+    Portfolio pf = new Portfolio(new ArrayList<>(Arrays.asList(symbols)), quantity, price);
+    pf.setDate(date);
+    pf.setOperation(op);
+
+    return pf;
+  }
+
+  @Override
+  public List<String> getTickerList(Properties properties) throws IOException {
+    List<String> tickerList = new ArrayList<>();
+    String line = "";
+    BufferedReader br = new BufferedReader(new FileReader(properties.getProperty("ticker_check")));
+    while ((line = br.readLine()) != null) {
+      tickerList.add(line);
+    }
+
+    return tickerList;
+  }
+}
@@ -5,7 +5,6 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -14,16 +13,28 @@ abstract class AbstractStockModel {
 
   private final Properties properties;
   private final BaseStockPriceInterface stockPrice;
-  private Portfolio portfolio;
-  private String user;
-  private String pwd;
+  private final ModelContext context;
 
   AbstractStockModel() throws IOException {
     this.properties = new Properties();
     InputStream input = new FileInputStream("src/config.properties");
     properties.load(input);
-    portfolio = new Portfolio();
-    this.stockPrice = new StockPrice();
+    this.context = new ModelContext("admin", null);
+    this.stockPrice = new StockPrice(properties);
+  }
+
+  /**
+   * constructor to create the view of a model for the session of a user. The view shares the
+   * configuration and the stock price object, and with it the price cache, of the model, and
+   * works with the given context for as long as it lives.
+   *
+   * @param model   model the view is created from.
+   * @param context context of the user of the session.
+   */
+  AbstractStockModel(AbstractStockModel model, ModelContext context) {
+    this.properties = model.properties;
+    this.stockPrice = model.stockPrice;
+    this.context = context;
   }
 
   abstract String getPath();
@@ -42,13 +53,22 @@ abstract class AbstractStockModel {
 
   protected boolean authenticateCredentials(String user, String pwd) {
 
-    if (user.equals("admin") && pwd.hashCode() == ("Asdf@1234".hashCode())) {
-      setUser(user);
-      setPwd(pwd);
-      return true;
-    }
+    return user.equals("admin") && pwd.hashCode() == ("Asdf@1234".hashCode());
+  }
 
-    return false;
+  /**
+   * returns the context of a user who logs in with the given credentials.
+   *
+   * @param user name of the user.
+   * @param pwd  password of the user.
+   * @return context of the user.
+   * @throws RuntimeException if the credentials do not match.
+   */
+  protected ModelContext login(String user, String pwd) {
+    if (!authenticateCredentials(user, pwd)) {
+      throw new RuntimeException("Invalid credentials.");
+    }
+    return new ModelContext(user, pwd);
   }
 
   /**
@@ -75,56 +95,45 @@ abstract class AbstractStockModel {
 
 
   /**
-   * creates a portfolio file under res folder if not present.
+   * creates a portfolio file under res folder with the next free number of the user.
    *
+   * @param context context of the request.
    * @return the created filename in string format.
    */
-  protected String createPortfolioFile(String fileType, ReadWriteInterface<Portfolio> parserType,
-                                       Portfolio portfolio, List<String> files) {
-    StringBuilder filename;
-    int fileIndex = 0;
+  protected String createPortfolioFile(ModelContext context, String fileType,
+                                       ReadWriteInterface<Portfolio> parserType,
+                                       Portfolio portfolio) {
     File myObj;
     try {
-
-      if (files.size() == 0) {
-        new File(getPath() + "/" + getUser()).mkdir();
-      } else {
-        String file = files.get(files.size() - 1).split("\\.")[0];
-        fileIndex = Integer.parseInt(file.substring(getUser().length()));
-      }
-
-      do {
-        fileIndex++;
-        filename = new StringBuilder(getUser());
-        filename.append(fileIndex);
-        myObj = new File(getPath() + "/"
-                + getUser() + "/" + filename + fileType);
-        if (myObj.createNewFile()) {
-          parserType.writeToFile(myObj, portfolio);
-        }
-      }
-      while (files.contains(filename + fileType));
+      myObj = IdAllocator.of(context.getDirectory(getPath()), context.getUser()).create(fileType);
+      parserType.writeToFile(myObj, portfolio);
     } catch (IOException e) {
       throw new RuntimeException("An error occurred while creating the portfolio file.");
     }
 
-    return filename.toString();
+    String filename = myObj.getName();
+    return filename.substring(0, filename.length() - fileType.length());
   }
 
   /**
    * gets the portfolio among the list of portfolio options based on the pfNumber passed.
    *
+   * @param context  context of the request.
    * @param pfNumber portfolio number selected by user among the list of portfolios.
+   * @param date     specified date in yyyy-mm-dd, or null if the portfolio has no dates.
    * @return an object of PortfolioInterface.
    */
 
-  protected Portfolio examinePortfolioHelper(int pfNumber) throws IOException {
+  protected Portfolio examinePortfolioHelper(ModelContext context, int pfNumber, String date)
+          throws IOException {
 
     ReadWriteInterface<Portfolio> parser = getCorrectFileParser();
 
-    File file = getCorrectFile(pfNumber, getFileList());
+    File file = getCorrectFile(context, pfNumber, getFileList(context));
 
-    return parser.readFromFile(file, getPortfolio());
+    Portfolio query = new Portfolio();
+    query.setDate(date);
+    return parser.readFromFile(file, query);
   }
 
 
@@ -139,42 +148,36 @@ abstract class AbstractStockModel {
   protected PortfolioInterface getPortFolioAtDate(int pfNumber, String date)
           throws RuntimeException, IOException {
 
-    Portfolio portfolio = examinePortfolioHelper(pfNumber);
+    Portfolio portfolio = examinePortfolioHelper(getContext(), pfNumber, date);
 
+    double[] prices = stockPrice.getStockPricesByApi(
+            portfolio.getSymbol().toArray(new String[0]), date, properties);
     List<Double> price = new ArrayList<>();
-    for (int i = 0; i < portfolio.getSize(); i++) {
-      price.add(stockPrice.getStockPriceByApi(portfolio.getSymbol().get(i), date, properties));
-
+    for (double p : prices) {
+      price.add(p);
     }
     portfolio.setPrice(price);
     return portfolio;
   }
 
   /**
-   * gets the list of portfolio files created by the user.
+   * gets the list of portfolio files created by the user. The list is cached and kept current
+   * by DirectoryListing.
    *
-   * @return the list of portfolio files.
+   * @return the unmodifiable list of portfolio files.
    */
   protected List<String> getFileList() {
-    String user = getUser();
-    File folder = new File(getPath() + "/" + user + "/");
-
-    List<String> fileNames = new ArrayList<>();
-
-    File[] files = folder.listFiles();
+    return getFileList(getContext());
+  }
 
-    if (files != null) {
-      for (File f : files) {
-        fileNames.add(f.getName());
-      }
-    }
-    Collections.sort(fileNames, (f1, f2) -> {
-      if (f1.length() != f2.length()) {
-        return f1.length() > f2.length() ? 1 : -1;
-      }
-      return f1.compareTo(f2);
-    });
-    return fileNames;
+  /**
+   * gets the list of portfolio files of the user of a request.
+   *
+   * @param context context of the request.
+   * @return the unmodifiable list of portfolio files.
+   */
+  protected List<String> getFileList(ModelContext context) {
+    return DirectoryListing.of(context.getDirectory(getPath())).getNames();
   }
 
   protected BaseStockPriceInterface getStockPrice() {
@@ -185,13 +188,22 @@ abstract class AbstractStockModel {
     if (getPath().equals("portfolios")) {
       return ".txt";
     } else if (getPath().equals("flex_portfolios")) {
-      return ".json";
+      String fileType = properties.getProperty("flex_file_type", JsonReadWrite.FILE_TYPE);
+      if (!fileType.equals(JsonReadWrite.FILE_TYPE)
+              && !fileType.equals(BinaryReadWrite.FILE_TYPE)) {
+        throw new RuntimeException("Please check config properties for flex file type value");
+      }
+      return fileType;
     } else {
       throw new RuntimeException("Invalid fileParser needed");
     }
   }
 
   protected File getCorrectFile(int pfNumber, List<String> fileList) {
+    return getCorrectFile(getContext(), pfNumber, fileList);
+  }
+
+  protected File getCorrectFile(ModelContext context, int pfNumber, List<String> fileList) {
 
     if (fileList.size() == 0) {
       throw new RuntimeException("No portfolio present. Please create a portfolio " +
@@ -200,8 +212,7 @@ abstract class AbstractStockModel {
     String temp_filename = fileList.get(pfNumber - 1);
 
     try {
-      File myObj = new File(getPath() + "/"
-              + getUser() + "/" + temp_filename);
+      File myObj = new File(context.getDirectory(getPath()), temp_filename);
       if (myObj.isFile()) {
         return myObj;
       } else {
@@ -229,20 +240,7 @@ abstract class AbstractStockModel {
    * @return username in string format.
    */
   protected String getUser() {
-    if (user == null) {
-      return "admin";
-    }
-    return user;
-  }
-
-  /**
-   * sets the username of that particular user.
-   *
-   * @param user name of the user in string format.
-   */
-
-  private void setUser(String user) {
-    this.user = user;
+    return getContext().getUser();
   }
 
   /**
@@ -251,35 +249,17 @@ abstract class AbstractStockModel {
    * @return password in string format.
    */
   protected String getPwd() {
-    return pwd;
-  }
-
-  /**
-   * sets the password of that particular user.
-   *
-   * @param pwd password of the user in string format.
-   */
-  private void setPwd(String pwd) {
-    this.pwd = pwd;
-  }
-
-  /**
-   * returns the portfolio object of the portfolio currently being worked on.
-   *
-   * @return portfolio object.
-   */
-
-  protected Portfolio getPortfolio() {
-    return portfolio;
+    return getContext().getPwd();
   }
 
   /**
-   * sets the portfolio object's value as per the portfolio passed.
+   * returns the context of the session this model serves. It does not change, so every request
+   * on the model reads the same user.
    *
-   * @param portfolio portfolio object with values to be set.
+   * @return context of the user of the session.
    */
-  protected void setPortfolio(Portfolio portfolio) {
-    this.portfolio = portfolio;
+  protected ModelContext getContext() {
+    return context;
   }
 
 }
\ No newline at end of file
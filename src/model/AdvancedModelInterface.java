@@ -36,6 +36,17 @@ public interface AdvancedModelInterface {
    */
   double calculateCostBasis(int pfNumber, String date);
 
+  /**
+   * returns the cost of the shares of each stock still held in a portfolio at a specified date,
+   * as per the lot accounting method.
+   *
+   * @param pfNumber portfolio number selected by user among the list of portfolios.
+   * @param date     specified date in yyyy-mm-dd.
+   * @param method   "FIFO" to sell the shares bought first, or "AVERAGE" for average cost.
+   * @return map of stock symbol and cost of its shares held, in the order they were first bought.
+   */
+  Map<String, Double> calculateOpenCostBasis(int pfNumber, String date, String method);
+
   /**
    * returns valuation of a portfolio at a specified date.
    *
@@ -45,6 +56,16 @@ public interface AdvancedModelInterface {
    */
   double calculateValuation(int pfNumber, String date);
 
+  /**
+   * returns valuation of every portfolio of the user at a specified date. The portfolios are
+   * valued in parallel.
+   *
+   * @param date specified date in yyyy-mm-dd.
+   * @return map of portfolio file name and its total valuation, in the order of the portfolio
+   *         list.
+   */
+  Map<String, Double> calculateAllValuations(String date);
+
   /**
    * gets the portfolio among the list of portfolio options based on the pfNumber passed.
    * displays the composition of a given portfolio at specified date.
@@ -87,6 +108,18 @@ public interface AdvancedModelInterface {
    */
   boolean authenticateCredentials(String user, String pwd);
 
+  /**
+   * returns the view of this model for the session of a user who logs in with the given
+   * credentials. The view works with the files of that user only, and this model is not changed,
+   * so other sessions can go on using it.
+   *
+   * @param user name of the user i.e. admin.
+   * @param pwd  password set by admin ie Asdf@1234.
+   * @return model for the session of the user.
+   * @throws RuntimeException if the credentials do not match.
+   */
+  AdvancedModelInterface forSession(String user, String pwd);
+
   /**
    * returns the username currently logged in.
    *
@@ -152,4 +185,13 @@ public interface AdvancedModelInterface {
    */
   String createWeightedPortfolio(Map<String, Double> weightMap, double totalCost, int pfNumber,
                                  double commission, String date);
+
+  /**
+   * tells whether the market was open on the given date, as per the trading calendar built from
+   * observed price data. If that price data cannot be loaded, every weekday is a trading day.
+   *
+   * @param date date in yyyy-mm-dd format.
+   * @return true if the date is a trading day.
+   */
+  boolean isTradingDay(String date);
 }
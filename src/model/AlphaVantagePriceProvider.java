@@ -0,0 +1,55 @@
+package model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Properties;
+
+/**
+ * PriceProvider implementation which fetches csv price data from the Alpha Vantage api.
+ * This class is package private that is accessible to only classes present in model package.
+ */
+class AlphaVantagePriceProvider implements PriceProvider {
+
+  private final String apiKey;
+
+  /**
+   * parameterized constructor to initialize the provider with the configured api key.
+   *
+   * @param properties config properties to retrieve the api key.
+   */
+  AlphaVantagePriceProvider(Properties properties) {
+    this.apiKey = properties.getProperty("api_key");
+  }
+
+  @Override
+  public PriceSeries fetchDaily(String symbol, boolean tailOnly) {
+    return fetch(symbol, "TIME_SERIES_DAILY", tailOnly ? "compact" : "full");
+  }
+
+  @Override
+  public boolean isRemote() {
+    return true;
+  }
+
+  private PriceSeries fetch(String symbol, String function, String outputSize) {
+    URL url = null;
+    try {
+      url = new URL("https://www.alphavantage"
+              + ".co/query?function=" + function
+              + "&outputsize=" + outputSize
+              + "&symbol"
+              + "=" + symbol + "&apikey=" + apiKey + "&datatype=csv");
+    } catch (MalformedURLException e) {
+      throw new RuntimeException(" API has either changed or "
+              + "no longer works");
+    }
+    try (BufferedReader br = new BufferedReader(new InputStreamReader(url.openStream()))) {
+      return PriceSeries.fromCsv(br);
+    } catch (IOException | IllegalArgumentException e) {
+      throw new RuntimeException("No price data found for " + symbol);
+    }
+  }
+}
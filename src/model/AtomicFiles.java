@@ -0,0 +1,82 @@
+package model;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Helper class to replace the content of a file so that a crash leaves either the old or the new
+ * content, never a mix of both. The new content is written to a hidden temporary file next to
+ * the target, forced to disk and then renamed over the target.
+ * This class is package private that is accessible to only classes present in model package.
+ */
+class AtomicFiles {
+
+  /**
+   * writes the content of a file to a stream.
+   */
+  interface Content {
+
+    /**
+     * writes the content.
+     *
+     * @param out stream to write to, which is closed by the caller.
+     * @throws IOException when writing fails.
+     */
+    void writeTo(OutputStream out) throws IOException;
+  }
+
+  private AtomicFiles() {
+  }
+
+  /**
+   * replaces the content of the target file, creating it if needed.
+   *
+   * @param target  file to be written.
+   * @param content content to be written.
+   * @throws IOException when the content cannot be written, in which case the target is unchanged.
+   */
+  static void write(File target, Content content) throws IOException {
+    File directory = target.getAbsoluteFile().getParentFile();
+    File temp = new File(directory, "." + target.getName() + ".tmp");
+
+    try (FileOutputStream fos = new FileOutputStream(temp)) {
+      OutputStream out = new BufferedOutputStream(fos);
+      content.writeTo(out);
+      out.flush();
+      fos.getFD().sync();
+    } catch (IOException | RuntimeException e) {
+      temp.delete();
+      throw e;
+    }
+
+    try {
+      Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+              StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+    syncDirectory(directory);
+  }
+
+  /**
+   * forces the entries of a directory to disk, so that a file created, renamed or deleted in it
+   * survives a crash. Platforms which do not support this are ignored.
+   *
+   * @param directory directory to be synced.
+   */
+  static void syncDirectory(File directory) {
+    try (FileChannel channel = FileChannel.open(directory.toPath(), StandardOpenOption.READ)) {
+      channel.force(true);
+    } catch (IOException e) {
+      // directories cannot be opened for syncing on every platform.
+    }
+  }
+}
@@ -40,6 +40,18 @@ public interface BaseModelInterface {
    */
   boolean authenticateCredentials(String user, String pwd);
 
+  /**
+   * returns the view of this model for the session of a user who logs in with the given
+   * credentials. The view works with the files of that user only, and this model is not changed,
+   * so other sessions can go on using it.
+   *
+   * @param user name of the user i.e. admin.
+   * @param pwd  password set by admin ie Asdf@1234.
+   * @return model for the session of the user.
+   * @throws RuntimeException if the credentials do not match.
+   */
+  BaseModelInterface forSession(String user, String pwd);
+
   /**
    * gets the list of portfolio files created by the user.
    *
@@ -19,6 +19,31 @@ interface BaseStockPriceInterface {
    */
   Double getStockPriceByApi(String symbol, String currDate, Properties properties);
 
+  /**
+   * retrieves the stock prices of many symbols at one date. The date is parsed once and every
+   * symbol is resolved against the cache, calling the API only for symbols not cached yet.
+   *
+   * @param symbols    ticker symbols.
+   * @param currDate   date of the prices.
+   * @param properties config properties to retrieve the api key.
+   * @return price of each symbol, in the order of the symbols, or -1.0 where there is no data.
+   */
+  double[] getStockPricesByApi(String[] symbols, String currDate, Properties properties);
+
+  /**
+   * retrieves the cached price history of a symbol between two dates as a view, calling the API
+   * only if the symbol is not cached yet. The view also holds the trading day on or before the
+   * start date, so every date of the range can be priced from it.
+   *
+   * @param symbol     ticker symbol.
+   * @param startDate  start of the range in yyyy-MM-dd format.
+   * @param endDate    end of the range in yyyy-MM-dd format.
+   * @param properties config properties to retrieve the api key.
+   * @return view over the price history of the range.
+   */
+  PriceSlice getPriceRange(String symbol, String startDate, String endDate,
+                           Properties properties);
+
   /**
    * retrieves the stock price for a particular date by looking up the cache that is stored in
    * cache object of class Cache.
@@ -31,8 +56,8 @@ interface BaseStockPriceInterface {
   Double getStockPrice(String symbol, String inputDate, Properties properties);
 
   /**
-   * retrieves the stock price for the last working day of the month
-   * by calling API for monthly price of stock.
+   * retrieves the stock price for the last working day of the month.
+   * The monthly close is derived from the daily price series.
    *
    * @param symbol     ticker symbol.
    * @param currDate   current date.
@@ -42,7 +67,7 @@ interface BaseStockPriceInterface {
   Double getStockPriceByApiMonthly(String symbol, String currDate, Properties properties);
 
   /**
-   * gets the last working day of the month.
+   * gets the last working day of the month, derived from the daily price series.
    *
    * @param symbol     ticker symbol.
    * @param currDate   current date.
@@ -51,4 +76,22 @@ interface BaseStockPriceInterface {
    */
   String getMonthEndDateByApi(String symbol, String currDate, Properties properties);
 
+  /**
+   * returns the trading calendar shared by valuation, charting and strategy scheduling. It is
+   * built from the daily series of the symbol configured by the "calendar_symbol" property, or
+   * of the first ticker symbol if that property is not set, and rebuilt when that series is
+   * loaded again.
+   *
+   * @param properties config properties to retrieve the calendar symbol and the api key.
+   * @return trading calendar.
+   */
+  TradingCalendar getTradingCalendar(Properties properties);
+
+  /**
+   * returns the hit, miss, load and eviction counters of the price cache.
+   *
+   * @return snapshot of the cache counters.
+   */
+  CacheStats getCacheStats();
+
 }
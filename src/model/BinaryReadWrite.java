@@ -0,0 +1,113 @@
+package model;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.Consumer;
+
+/**
+ * Class to implement ReadWriteInterface. This class is used to work with compact binary portfolio
+ * files. A file holds a magic number, the mark of the last log merged into it (empty if none), a
+ * dictionary of the symbols used, and then the buys and the sells, each as a count followed by
+ * rows of symbol index, epoch day, quantity and price. A price which was not recorded is stored
+ * as NaN. Files are read through MappedFiles, straight from the mapped pages if they are large.
+ * This class is package private that is accessible to only classes present in model package.
+ */
+class BinaryReadWrite extends AbstractPortfolioReadWrite {
+
+  static final String FILE_TYPE = ".pfb";
+
+  private static final int MAGIC = 0x50464232;
+
+  /**
+   * parameterized constructor that is package private to initialize properties object passed
+   * by model.
+   *
+   * @param prop variable of Properties class.
+   */
+  BinaryReadWrite(Properties prop) {
+    super(prop);
+  }
+
+  @Override
+  String readSnapshot(File file, Consumer<Transaction> consumer) {
+    try {
+      ByteBuffer in = MappedFiles.read(file);
+      if (in.getInt() != MAGIC) {
+        throw new RuntimeException("File " + file.getName() + " is not a portfolio file.");
+      }
+      String mergedLog = MappedFiles.getUTF(in);
+      String[] symbols = new String[in.getInt()];
+      for (int i = 0; i < symbols.length; i++) {
+        symbols[i] = MappedFiles.getUTF(in);
+      }
+      readRows(in, symbols, consumer, 'b');
+      readRows(in, symbols, consumer, 's');
+      return mergedLog.isEmpty() ? null : mergedLog;
+    } catch (IOException | BufferUnderflowException | IndexOutOfBoundsException
+             | NegativeArraySizeException e) {
+      throw new RuntimeException("An error occurred while reading " + file.getName());
+    }
+  }
+
+  private void readRows(ByteBuffer in, String[] symbols, Consumer<Transaction> consumer,
+                        char op) {
+    int count = in.getInt();
+    for (int i = 0; i < count; i++) {
+      String symbol = symbols[in.getInt()];
+      int day = in.getInt();
+      double quantity = in.getDouble();
+      double price = in.getDouble();
+      consumer.accept(new Transaction(op, symbol, quantity, day,
+              Double.isNaN(price) ? null : price));
+    }
+  }
+
+  @Override
+  void writeSnapshot(File file, PortfolioHistory history, String mergedLog) {
+    Map<String, Integer> symbolIndex = new HashMap<>();
+    List<String> symbols = new ArrayList<>();
+    for (List<Transaction> transactions : List.of(history.getBuys(), history.getSells())) {
+      for (Transaction transaction : transactions) {
+        if (symbolIndex.putIfAbsent(transaction.getSymbol(), symbols.size()) == null) {
+          symbols.add(transaction.getSymbol());
+        }
+      }
+    }
+
+    try {
+      AtomicFiles.write(file, stream -> {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeUTF(mergedLog == null ? "" : mergedLog);
+        out.writeInt(symbols.size());
+        for (String symbol : symbols) {
+          out.writeUTF(symbol);
+        }
+        writeRows(out, symbolIndex, history.getBuys());
+        writeRows(out, symbolIndex, history.getSells());
+        out.flush();
+      });
+    } catch (IOException e) {
+      throw new RuntimeException("An error occurred while writing to a file.");
+    }
+  }
+
+  private void writeRows(DataOutputStream out, Map<String, Integer> symbolIndex,
+                         List<Transaction> transactions) throws IOException {
+    out.writeInt(transactions.size());
+    for (Transaction transaction : transactions) {
+      out.writeInt(symbolIndex.get(transaction.getSymbol()));
+      out.writeInt(transaction.getDay());
+      out.writeDouble(transaction.getQuantity());
+      out.writeDouble(transaction.getPrice() == null ? Double.NaN : transaction.getPrice());
+    }
+  }
+}
@@ -1,33 +1,167 @@
 package model;
 
-import java.util.HashMap;
-import java.util.List;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 /**
  * A class which is used to cache data fetched by the api using a map.
- * Here map has key as stock symbol and value is a string list which holds the data fetched by api
- * for that stock.
+ * Here map has key as stock symbol and value is a future of the PriceSeries which holds the data
+ * fetched by api for that stock in columnar form.
+ * The cache is safe to share across threads. Loading is single flight: the first caller of
+ * getOrLoad for a missing key runs the loader while concurrent callers for the same key wait on
+ * the same future instead of loading again.
+ * The cache is bounded by a maximum number of symbols and a maximum number of bytes; when either
+ * is exceeded the least recently used series are evicted.
  */
 class Cache {
-  private final Map<String, List<String>> cacheMap;
+  private final Map<String, CompletableFuture<PriceSeries>> cacheMap;
+  private final int maxSymbols;
+  private final long maxBytes;
+  private long weight;
+
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong loadCount = new AtomicLong();
+  private final AtomicLong evictionCount = new AtomicLong();
+  private final AtomicLong totalLoadTime = new AtomicLong();
 
   /**
-   * Default constructor to create an object of class Cache and initialize a new HashMap.
+   * Default constructor to create an unbounded object of class Cache.
    */
   Cache() {
-    cacheMap = new HashMap<>();
+    this(Integer.MAX_VALUE, Long.MAX_VALUE);
+  }
+
+  /**
+   * parameterized constructor to create a bounded object of class Cache.
+   *
+   * @param maxSymbols maximum number of symbols kept in the cache.
+   * @param maxBytes   maximum approximate bytes of series kept in the cache.
+   */
+  Cache(int maxSymbols, long maxBytes) {
+    if (maxSymbols < 1 || maxBytes < 1) {
+      throw new IllegalArgumentException("Cache bounds must be positive.");
+    }
+    this.cacheMap = new LinkedHashMap<>(16, 0.75f, true);
+    this.maxSymbols = maxSymbols;
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * returns the series cached for the key, loading it with the given loader if it is missing.
+   * A failed load is not cached, so the next caller tries again. The callers waiting for it get
+   * the same failure, whatever the loader threw.
+   *
+   * @param key    stock symbol.
+   * @param loader function which loads the series of a symbol.
+   * @return the cached or freshly loaded series.
+   */
+  PriceSeries getOrLoad(String key, Function<String, PriceSeries> loader) {
+    CompletableFuture<PriceSeries> future;
+    CompletableFuture<PriceSeries> created = null;
+
+    synchronized (this) {
+      future = cacheMap.get(key);
+      if (future == null) {
+        created = new CompletableFuture<>();
+        cacheMap.put(key, created);
+        future = created;
+      }
+    }
+
+    if (created == null) {
+      hitCount.incrementAndGet();
+      return await(future);
+    }
+
+    missCount.incrementAndGet();
+    long start = System.nanoTime();
+    try {
+      PriceSeries series = loader.apply(key);
+      totalLoadTime.addAndGet(System.nanoTime() - start);
+      loadCount.incrementAndGet();
+      synchronized (this) {
+        if (cacheMap.get(key) == created) {
+          weight += series.getSizeInBytes();
+        }
+        created.complete(series);
+        evict(key);
+      }
+      return series;
+    } catch (Throwable e) {
+      totalLoadTime.addAndGet(System.nanoTime() - start);
+      synchronized (this) {
+        cacheMap.remove(key, created);
+      }
+      created.completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  /**
+   * returns the series cached for the key, waiting for it if it is being loaded.
+   *
+   * @param key stock symbol.
+   * @return the cached series or null if the key is not cached.
+   */
+  PriceSeries get(String key) {
+    CompletableFuture<PriceSeries> future;
+    synchronized (this) {
+      future = cacheMap.get(key);
+    }
+    if (future == null) {
+      missCount.incrementAndGet();
+      return null;
+    }
+    hitCount.incrementAndGet();
+    return await(future);
   }
 
-  void put(String key, List<String> value) {
-    cacheMap.put(key, value);
+  /**
+   * returns a snapshot of the counters of this cache.
+   *
+   * @return hit, miss, load and eviction counters along with the current size.
+   */
+  synchronized CacheStats getStats() {
+    return new CacheStats(hitCount.get(), missCount.get(), loadCount.get(),
+            evictionCount.get(), totalLoadTime.get(), cacheMap.size(), weight);
   }
 
-  List<String> get(String key) {
-    return cacheMap.get(key);
+  /**
+   * removes least recently used series until the cache is within its bounds. The series that was
+   * just loaded and series that are still loading are never evicted.
+   */
+  private void evict(String loadedKey) {
+    Iterator<Map.Entry<String, CompletableFuture<PriceSeries>>> it =
+            cacheMap.entrySet().iterator();
+    while ((cacheMap.size() > maxSymbols || weight > maxBytes) && it.hasNext()) {
+      Map.Entry<String, CompletableFuture<PriceSeries>> eldest = it.next();
+      CompletableFuture<PriceSeries> future = eldest.getValue();
+      if (eldest.getKey().equals(loadedKey) || !future.isDone()) {
+        continue;
+      }
+      it.remove();
+      weight -= future.join().getSizeInBytes();
+      evictionCount.incrementAndGet();
+    }
   }
 
-  boolean containsKey(String key) {
-    return cacheMap.containsKey(key);
+  private PriceSeries await(CompletableFuture<PriceSeries> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw e;
+    }
   }
 }
@@ -0,0 +1,83 @@
+package model;
+
+/**
+ * Immutable snapshot of the counters of a price Cache.
+ * This class is package private that is accessible to only classes present in model package.
+ */
+class CacheStats {
+
+  private final long hitCount;
+  private final long missCount;
+  private final long loadCount;
+  private final long evictionCount;
+  private final long totalLoadTime;
+  private final int size;
+  private final long weight;
+
+  /**
+   * parameterized constructor to initialize all the counters of the snapshot.
+   *
+   * @param hitCount      number of lookups which found the symbol cached.
+   * @param missCount     number of lookups which did not find the symbol cached.
+   * @param loadCount     number of series loaded successfully.
+   * @param evictionCount number of series evicted to stay within the bounds.
+   * @param totalLoadTime nanoseconds spent loading series, including failed loads.
+   * @param size          number of symbols currently cached.
+   * @param weight        approximate bytes of the series currently cached.
+   */
+  CacheStats(long hitCount, long missCount, long loadCount, long evictionCount,
+             long totalLoadTime, int size, long weight) {
+    this.hitCount = hitCount;
+    this.missCount = missCount;
+    this.loadCount = loadCount;
+    this.evictionCount = evictionCount;
+    this.totalLoadTime = totalLoadTime;
+    this.size = size;
+    this.weight = weight;
+  }
+
+  long getHitCount() {
+    return hitCount;
+  }
+
+  long getMissCount() {
+    return missCount;
+  }
+
+  long getLoadCount() {
+    return loadCount;
+  }
+
+  long getEvictionCount() {
+    return evictionCount;
+  }
+
+  long getTotalLoadTime() {
+    return totalLoadTime;
+  }
+
+  int getSize() {
+    return size;
+  }
+
+  long getWeight() {
+    return weight;
+  }
+
+  /**
+   * returns the fraction of lookups that were served from the cache.
+   *
+   * @return hit rate between 0 and 1, or 1 if there were no lookups yet.
+   */
+  double getHitRate() {
+    long requests = hitCount + missCount;
+    return requests == 0 ? 1.0 : (double) hitCount / requests;
+  }
+
+  @Override
+  public String toString() {
+    return "CacheStats{hits=" + hitCount + ", misses=" + missCount + ", loads=" + loadCount
+            + ", evictions=" + evictionCount + ", loadTimeNanos=" + totalLoadTime
+            + ", size=" + size + ", bytes=" + weight + "}";
+  }
+}
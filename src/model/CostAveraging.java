@@ -5,6 +5,7 @@ import java.io.IOException;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
@@ -22,14 +23,42 @@ import java.util.Properties;
 public class CostAveraging extends AbstractStockModel implements CostAveragingInterface {
 
   private final BaseStockPriceInterface stockPrice;
+  private final Properties properties;
 
   /**
-   * default constructor to create an object of CostAveraging class while initializing
-   * stockPrice object.
+   * parameterized constructor to create an object of CostAveraging class which shares the
+   * stockPrice object, and with it the price cache and trading calendar, of the calling model.
+   *
+   * @param stockPrice stockPrice object of the calling model.
+   * @param properties config properties of the calling model.
    */
-  CostAveraging() throws IOException {
+  CostAveraging(BaseStockPriceInterface stockPrice, Properties properties) throws IOException {
     super();
-    this.stockPrice = getStockPrice();
+    this.stockPrice = stockPrice;
+    this.properties = properties;
+  }
+
+  /**
+   * constructor to create the view of an object of CostAveraging class for the session of a user,
+   * which reads and writes the strategies of that user.
+   *
+   * @param costAveraging object the view is created from.
+   * @param context       context of the user of the session.
+   */
+  private CostAveraging(CostAveraging costAveraging, ModelContext context) {
+    super(costAveraging, context);
+    this.stockPrice = costAveraging.stockPrice;
+    this.properties = costAveraging.properties;
+  }
+
+  /**
+   * returns the view of this object for the session of a user.
+   *
+   * @param context context of the user of the session.
+   * @return object of CostAveraging class for the session.
+   */
+  CostAveraging forSession(ModelContext context) {
+    return new CostAveraging(this, context);
   }
 
   @Override
@@ -63,6 +92,58 @@ public class CostAveraging extends AbstractStockModel implements CostAveragingIn
     return stockMap;
   }
 
+  @Override
+  public List<Map<String, Double>> getStockMaps(Map<String, Double> weightMap, double totalCost,
+                                                double commission, List<String> dates,
+                                                Properties properties) {
+    List<Map<String, Double>> stockMaps = new ArrayList<>();
+    if (dates.isEmpty()) {
+      return stockMaps;
+    }
+
+    int today = (int) LocalDate.now().toEpochDay();
+    int[] days = new int[dates.size()];
+    String firstDate = dates.get(0);
+    String lastDate = dates.get(0);
+    try {
+      for (int i = 0; i < days.length; i++) {
+        days[i] = PriceSeries.toEpochDay(dates.get(i));
+        if (dates.get(i).compareTo(firstDate) < 0) {
+          firstDate = dates.get(i);
+        }
+        if (dates.get(i).compareTo(lastDate) > 0) {
+          lastDate = dates.get(i);
+        }
+      }
+    } catch (IllegalArgumentException e) {
+      throw new RuntimeException(e.getMessage());
+    }
+
+    Map<String, PriceSlice> slices = new HashMap<>();
+    for (int i = 0; i < days.length; i++) {
+      Map<String, Double> stockMap = new HashMap<>();
+      for (Map.Entry<String, Double> entry : weightMap.entrySet()) {
+        if (days[i] > today) {
+          stockMap.put(entry.getKey(), -1.0);
+        } else {
+          PriceSlice slice = slices.get(entry.getKey());
+          if (slice == null) {
+            slice = stockPrice.getPriceRange(entry.getKey(), firstDate, lastDate, properties);
+            slices.put(entry.getKey(), slice);
+          }
+          double stockShare = (entry.getValue() * totalCost / 100);
+          double price = slice.closeAsOf(days[i]);
+          double priceAfterCommission = price + (price * commission / 100);
+          double quantity = stockShare / priceAfterCommission;
+
+          stockMap.put(entry.getKey(), quantity);
+        }
+      }
+      stockMaps.add(stockMap);
+    }
+    return stockMaps;
+  }
+
   @Override
   public List<String> getDates(String startDate, String endDate, int period) {
     List<String> dates = new ArrayList<>();
@@ -78,6 +159,8 @@ public class CostAveraging extends AbstractStockModel implements CostAveragingIn
         throw new RuntimeException("Start date must always be before end date.");
       }
 
+      TradingCalendar calendar = stockPrice.getTradingCalendar(properties);
+
       while (d1.compareTo(d2) <= 0 && d1.compareTo(currDate) <= 0) {
         c.setTime(d1);
         c.add(Calendar.DATE, period);
@@ -89,18 +172,48 @@ public class CostAveraging extends AbstractStockModel implements CostAveragingIn
         dates.remove(dates.size() - 1);
       }
 
-      return dates;
+      return tradingDates(calendar, startDate, dates);
 
     } catch (Exception e) {
       throw new RuntimeException(e.getMessage());
     }
   }
 
+  /**
+   * moves each scheduled date that is not a trading day back to the previous trading day, on
+   * which its price would have been looked up anyway. A date that lands on the trading day of the
+   * start date or on one which is already scheduled is left out, so that no day is bought twice.
+   */
+  private List<String> tradingDates(TradingCalendar calendar, String startDate,
+                                    List<String> dates) {
+    List<String> tradingDates = new ArrayList<>();
+    String last = tradingDate(calendar, startDate);
+    for (String date : dates) {
+      String tradingDate = tradingDate(calendar, date);
+      if (!tradingDate.equals(last)) {
+        tradingDates.add(tradingDate);
+        last = tradingDate;
+      }
+    }
+    return tradingDates;
+  }
+
+  private String tradingDate(TradingCalendar calendar, String date) {
+    int day = calendar.previousTradingDay(PriceSeries.toEpochDay(date));
+    return day < 0 ? date : PriceSeries.toDateString(day);
+  }
+
   @Override
   public List<String> getStrategyList() {
     return super.getFileList();
   }
 
+  @Override
+  public StrategyInterface readStrategy(int strategyNumber) {
+    return getCorrectFileParser().readFromFile(
+            getCorrectFile(strategyNumber, getStrategyList()), new Strategy());
+  }
+
   @Override
   public String persistStrategy(Map<String, Double> weightMap, double totalCost, String pfFile,
                                 double commission, String endDate, int period) {
@@ -112,39 +225,22 @@ public class CostAveraging extends AbstractStockModel implements CostAveragingIn
 
     ReadWriteInterface<Strategy> strategyParser = getCorrectFileParser();
 
-    return createStrategyFile(strategyParser, strategy,
-            getStrategyList());
+    return createStrategyFile(strategyParser, strategy);
   }
 
   private String createStrategyFile(ReadWriteInterface<Strategy> parserType,
-                                    Strategy strategy, List<String> files) {
-    StringBuilder filename;
-    int fileIndex = 0;
+                                    Strategy strategy) {
     File myObj;
     try {
-
-      if (files.size() == 0) {
-        new File(getPath() + "/" + super.getUser()).mkdir();
-      } else {
-        String file = files.get(files.size() - 1).split("\\.")[0];
-        fileIndex = Integer.parseInt(file.substring(5));
-      }
-
-      do {
-        fileIndex++;
-        filename = new StringBuilder(super.getUser());
-        filename.append(fileIndex);
-        myObj = new File(getPath() + "/" + super.getUser() + "/" + filename + ".json");
-        if (myObj.createNewFile()) {
-          parserType.writeToFile(myObj, strategy);
-        }
-      }
-      while (files.contains(filename + ".json"));
+      ModelContext context = getContext();
+      myObj = IdAllocator.of(context.getDirectory(getPath()), context.getUser()).create(".json");
+      parserType.writeToFile(myObj, strategy);
     } catch (IOException e) {
       throw new RuntimeException("An error occurred while creating the strategy file.");
     }
 
-    return filename.toString();
+    String filename = myObj.getName();
+    return filename.substring(0, filename.length() - ".json".length());
   }
 
   @Override
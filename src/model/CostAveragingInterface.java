@@ -24,6 +24,22 @@ public interface CostAveragingInterface {
   Map<String, Double> getStockMap(Map<String, Double> weightMap, double totalCost,
                                   double commission, String date, Properties properties);
 
+  /**
+   * used to create the stock maps of a recurring investment, one per date, like getStockMap does
+   * for a single date. The price history of each stock is fetched once for the whole range of
+   * dates and read directly instead of being looked up date by date.
+   *
+   * @param weightMap  map of stock symbol and its corresponding weight in that investment.
+   * @param totalCost  total amount to be invested on each date.
+   * @param commission commission (in %) to be incurred.
+   * @param dates      dates for the investments to be made in yyyy-mm-dd format.
+   * @param properties config properties to retrieve info needed to perform operation.
+   * @return a stock map for each date, in the order of the dates.
+   */
+  List<Map<String, Double>> getStockMaps(Map<String, Double> weightMap, double totalCost,
+                                         double commission, List<String> dates,
+                                         Properties properties);
+
   /**
    * used to get a list of dates when the investment is to be as per the strategy given by the user.
    *
@@ -41,6 +57,14 @@ public interface CostAveragingInterface {
    */
   List<String> getStrategyList();
 
+  /**
+   * reads a strategy file.
+   *
+   * @param strategyNumber position of the strategy file in the strategy list, starting from 1.
+   * @return the strategy stored in the file.
+   */
+  StrategyInterface readStrategy(int strategyNumber);
+
   /**
    * function to save a particular strategy as defined by the user.
    *
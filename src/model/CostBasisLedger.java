@@ -0,0 +1,236 @@
+package model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A class which keeps the cost basis of a flexible portfolio as a running total by day, i.e. the
+ * sum of |price x quantity| of every transaction up to each day, so that the cost basis at a day
+ * is one binary search. Transactions recorded in day order are added in constant time; one dated
+ * before the last recorded day makes the totals be rebuilt on the next query.
+ * It also replays the transactions into lots of shares, first in first out or at average cost,
+ * to tell the cost of the shares still held at a day.
+ * This class is package private that is accessible to only classes present in model package.
+ */
+class CostBasisLedger {
+
+  /**
+   * how the shares sold are matched against the shares bought.
+   */
+  enum LotMethod {
+    /**
+     * a sale takes the shares bought first.
+     */
+    FIFO,
+    /**
+     * every share of a stock costs the average price of the shares held.
+     */
+    AVERAGE
+  }
+
+  private final List<Transaction> transactions;
+  private int[] days;
+  private double[] totals;
+  private int size;
+  private boolean sorted;
+
+  /**
+   * default constructor to create an empty ledger.
+   */
+  CostBasisLedger() {
+    this.transactions = new ArrayList<>();
+    this.days = new int[16];
+    this.totals = new double[16];
+    this.sorted = true;
+  }
+
+  /**
+   * builds the ledger of a portfolio from its transactions.
+   *
+   * @param history every transaction of the portfolio.
+   * @return ledger of the portfolio.
+   */
+  static CostBasisLedger build(PortfolioHistory history) {
+    CostBasisLedger ledger = new CostBasisLedger();
+    for (Transaction transaction : history.getBuys()) {
+      ledger.add(transaction);
+    }
+    for (Transaction transaction : history.getSells()) {
+      ledger.add(transaction);
+    }
+    return ledger;
+  }
+
+  /**
+   * records a transaction in the ledger.
+   *
+   * @param transaction buy or sell to be recorded.
+   */
+  void add(Transaction transaction) {
+    transactions.add(transaction);
+    if (!sorted) {
+      return;
+    }
+    if (size > 0 && transaction.getDay() < days[size - 1]) {
+      sorted = false;
+      return;
+    }
+    append(transaction);
+  }
+
+  private void append(Transaction transaction) {
+    if (size == days.length) {
+      days = Arrays.copyOf(days, size * 2);
+      totals = Arrays.copyOf(totals, size * 2);
+    }
+    days[size] = transaction.getDay();
+    totals[size] = (size == 0 ? 0 : totals[size - 1]) + cost(transaction);
+    size++;
+  }
+
+  /**
+   * returns what a transaction added to the cost basis, i.e. the price paid for a buy including
+   * commission, or the commission paid for a sell. A transaction without a price adds nothing.
+   */
+  private static double cost(Transaction transaction) {
+    if (transaction.getPrice() == null) {
+      return 0;
+    }
+    return Math.abs(transaction.getPrice() * transaction.getQuantity());
+  }
+
+  /**
+   * returns the cost basis of the portfolio at a day, i.e. the total paid for every transaction
+   * on or before the day.
+   *
+   * @param epochDay day as an epoch day.
+   * @return cost basis at the day.
+   */
+  double costBasisAt(int epochDay) {
+    if (!sorted) {
+      size = 0;
+      for (Transaction transaction : inDayOrder()) {
+        append(transaction);
+      }
+      sorted = true;
+    }
+
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (days[mid] <= epochDay) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low == 0 ? 0 : totals[low - 1];
+  }
+
+  /**
+   * returns the lots of shares still held at a day. With FIFO every buy with shares left is a
+   * lot of its own; with AVERAGE each stock is one lot dated by its first buy still held.
+   * Sales are matched against the shares held before them, buys first on the same day.
+   *
+   * @param epochDay day as an epoch day.
+   * @param method   how the shares sold are matched against the shares bought.
+   * @return open lots in the order the stocks were first bought.
+   */
+  List<Lot> openLots(int epochDay, LotMethod method) {
+    Map<String, Deque<Lot>> held = new LinkedHashMap<>();
+    for (Transaction transaction : inDayOrder()) {
+      if (transaction.getDay() > epochDay) {
+        break;
+      }
+      Deque<Lot> lots = held.computeIfAbsent(transaction.getSymbol(), k -> new ArrayDeque<>());
+      if (transaction.getOperation() == 's') {
+        sell(lots, transaction.getQuantity());
+      } else {
+        buy(lots, transaction, method);
+      }
+    }
+
+    List<Lot> result = new ArrayList<>();
+    for (Deque<Lot> lots : held.values()) {
+      result.addAll(lots);
+    }
+    return result;
+  }
+
+  private void buy(Deque<Lot> lots, Transaction transaction, LotMethod method) {
+    double price = transaction.getPrice() == null ? 0 : transaction.getPrice();
+    Lot lot = new Lot(transaction.getSymbol(), transaction.getDay(), transaction.getQuantity(),
+            price);
+    if (method == LotMethod.AVERAGE && !lots.isEmpty()) {
+      Lot pooled = lots.removeFirst();
+      double quantity = pooled.quantity + lot.quantity;
+      lot = new Lot(pooled.symbol, pooled.day, quantity,
+              (pooled.getCost() + lot.getCost()) / quantity);
+    }
+    lots.addLast(lot);
+  }
+
+  private void sell(Deque<Lot> lots, double quantity) {
+    while (quantity > 0 && !lots.isEmpty()) {
+      Lot first = lots.removeFirst();
+      if (first.quantity > quantity) {
+        lots.addFirst(new Lot(first.symbol, first.day, first.quantity - quantity,
+                first.unitCost));
+        return;
+      }
+      quantity -= first.quantity;
+    }
+  }
+
+  private List<Transaction> inDayOrder() {
+    List<Transaction> ordered = new ArrayList<>(transactions);
+    ordered.sort(Comparator.comparingInt(Transaction::getDay)
+            .thenComparing(t -> t.getOperation() == 's'));
+    return ordered;
+  }
+
+  /**
+   * shares of one stock bought on one day at one cost per share, or what is left of them.
+   */
+  static final class Lot {
+
+    private final String symbol;
+    private final int day;
+    private final double quantity;
+    private final double unitCost;
+
+    Lot(String symbol, int day, double quantity, double unitCost) {
+      this.symbol = symbol;
+      this.day = day;
+      this.quantity = quantity;
+      this.unitCost = unitCost;
+    }
+
+    String getSymbol() {
+      return symbol;
+    }
+
+    int getDay() {
+      return day;
+    }
+
+    double getQuantity() {
+      return quantity;
+    }
+
+    double getUnitCost() {
+      return unitCost;
+    }
+
+    double getCost() {
+      return quantity * unitCost;
+    }
+  }
+}
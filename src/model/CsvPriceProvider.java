@@ -0,0 +1,43 @@
+package model;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Properties;
+
+/**
+ * PriceProvider implementation which reads price data from local csv files, one file per symbol
+ * named SYMBOL.csv under the directory configured by the "price_provider_dir" property.
+ * Files use the same "timestamp,open,high,low,close,volume" layout as the api, in either date
+ * order. It is used to run the model without network access, e.g. for tests and benchmarks.
+ * This class is package private that is accessible to only classes present in model package.
+ */
+class CsvPriceProvider implements PriceProvider {
+
+  private final File directory;
+
+  /**
+   * parameterized constructor to initialize the provider with the configured directory.
+   *
+   * @param properties config properties to retrieve the price file directory.
+   */
+  CsvPriceProvider(Properties properties) {
+    this.directory = new File(properties.getProperty("price_provider_dir", "data/prices"));
+  }
+
+  @Override
+  public PriceSeries fetchDaily(String symbol, boolean tailOnly) {
+    File file = new File(directory, symbol + ".csv");
+    try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+      return PriceSeries.fromCsv(br);
+    } catch (IOException | IllegalArgumentException e) {
+      throw new RuntimeException("No price data found for " + symbol);
+    }
+  }
+
+  @Override
+  public boolean isRemote() {
+    return false;
+  }
+}
@@ -0,0 +1,162 @@
+package model;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A class which keeps the sorted list of files of a portfolio or strategy directory, so that the
+ * directory is not listed and sorted again on every call. The list is kept current by the model's
+ * own file creations and deletions and by a WatchService which reports files created or deleted
+ * by anyone else; its events are picked up the next time the list is asked for. If the directory
+ * cannot be watched, e.g. because it does not exist yet, it is listed on every call.
+ * Hidden files and directories are not listed. Listings are shared by every model.
+ * This class is package private that is accessible to only classes present in model package.
+ */
+class DirectoryListing {
+
+  /**
+   * orders file names by length and then alphabetically, so that admin10 comes after admin9.
+   */
+  static final Comparator<String> ORDER = Comparator.comparingInt(String::length)
+          .thenComparing(Comparator.naturalOrder());
+
+  private static final Map<File, DirectoryListing> listings = new HashMap<>();
+  private static WatchService watchService;
+
+  private final File directory;
+  private WatchKey key;
+  private List<String> names;
+
+  private DirectoryListing(File directory) {
+    this.directory = directory;
+  }
+
+  /**
+   * returns the listing of the given directory.
+   *
+   * @param directory portfolio or strategy directory.
+   * @return listing shared by every caller asking for the same directory.
+   */
+  static synchronized DirectoryListing of(File directory) {
+    return listings.computeIfAbsent(directory.getAbsoluteFile(), DirectoryListing::new);
+  }
+
+  private static synchronized WatchService getWatchService() {
+    if (watchService == null) {
+      try {
+        watchService = FileSystems.getDefault().newWatchService();
+      } catch (IOException | UnsupportedOperationException e) {
+        return null;
+      }
+    }
+    return watchService;
+  }
+
+  /**
+   * returns the names of the files in the directory ordered as per ORDER.
+   *
+   * @return unmodifiable list of file names, empty if the directory does not exist.
+   */
+  synchronized List<String> getNames() {
+    if (key != null) {
+      for (WatchEvent<?> event : key.pollEvents()) {
+        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+          names = null;
+        } else if (names != null) {
+          String name = event.context().toString();
+          if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+            removed(name);
+          } else if (new File(directory, name).isFile()) {
+            added(name);
+          }
+        }
+      }
+      if (!key.reset()) {
+        key = null;
+      }
+    }
+
+    if (key == null) {
+      names = null;
+      register();
+    }
+    if (names == null) {
+      names = list();
+    }
+    return names;
+  }
+
+  private void register() {
+    WatchService service = getWatchService();
+    if (service == null || !directory.isDirectory()) {
+      return;
+    }
+    try {
+      key = directory.toPath().register(service, StandardWatchEventKinds.ENTRY_CREATE,
+              StandardWatchEventKinds.ENTRY_DELETE);
+    } catch (IOException e) {
+      key = null;
+    }
+  }
+
+  private List<String> list() {
+    List<String> fileNames = new ArrayList<>();
+    File[] files = directory.listFiles();
+
+    if (files != null) {
+      for (File f : files) {
+        if (f.isFile() && !f.getName().startsWith(".")) {
+          fileNames.add(f.getName());
+        }
+      }
+    }
+    fileNames.sort(ORDER);
+    return Collections.unmodifiableList(fileNames);
+  }
+
+  /**
+   * records a file created in the directory.
+   *
+   * @param name name of the file.
+   */
+  synchronized void added(String name) {
+    if (names == null || name.startsWith(".")) {
+      return;
+    }
+    int index = Collections.binarySearch(names, name, ORDER);
+    if (index < 0) {
+      List<String> updated = new ArrayList<>(names);
+      updated.add(-index - 1, name);
+      names = Collections.unmodifiableList(updated);
+    }
+  }
+
+  /**
+   * records a file deleted from the directory.
+   *
+   * @param name name of the file.
+   */
+  synchronized void removed(String name) {
+    if (names == null) {
+      return;
+    }
+    int index = Collections.binarySearch(names, name, ORDER);
+    if (index >= 0) {
+      List<String> updated = new ArrayList<>(names);
+      updated.remove(index);
+      names = Collections.unmodifiableList(updated);
+    }
+  }
+}
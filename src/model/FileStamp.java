@@ -0,0 +1,51 @@
+package model;
+
+import java.io.File;
+import java.util.Objects;
+
+/**
+ * Immutable record of the state of a portfolio file and its TransactionLog, i.e. the last
+ * modification time and length of the file and the length of its log. Two stamps are equal only
+ * if all three values are, so a change to any of them is noticed.
+ * This class is package private that is accessible to only classes present in model package.
+ */
+final class FileStamp {
+
+  private final long lastModified;
+  private final long length;
+  private final long logLength;
+
+  private FileStamp(long lastModified, long length, long logLength) {
+    this.lastModified = lastModified;
+    this.length = length;
+    this.logLength = logLength;
+  }
+
+  /**
+   * returns the current stamp of a portfolio file and its log.
+   *
+   * @param file portfolio file.
+   * @return stamp of the file and its log.
+   */
+  static FileStamp of(File file) {
+    return new FileStamp(file.lastModified(), file.length(), new TransactionLog(file).length());
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof FileStamp)) {
+      return false;
+    }
+    FileStamp other = (FileStamp) o;
+    return lastModified == other.lastModified && length == other.length
+            && logLength == other.logLength;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(lastModified, length, logLength);
+  }
+}
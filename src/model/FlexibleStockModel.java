@@ -4,31 +4,39 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.text.DateFormat;
-import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Calendar;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * FlexibleStockModel class that implements AdvanceModelInterface and extends
  * InflexibleStockModel class. It performs various operations on flexible portfolio.
  * It implements all the features of this application while performing functionalities on
  * flexible portfolio.
+ * A login returns a view of the model for the session of the user, which holds the ModelContext
+ * of the session and shares the portfolios, prices and strategies cached by the model, so one
+ * model can serve several sessions at once.
  */
 
 public class FlexibleStockModel extends AbstractStockModel implements AdvancedModelInterface {
-  private final ReadWriteInterface<Portfolio> fileParser;
+  static final int DEFAULT_VALUATION_THREADS = 8;
+  private static PortfolioRepository repository;
+  private static ExecutorService valuationPool;
   private final Properties properties;
   private final PerformanceGraphInterface performanceGraph;
-  private final Portfolio portfolio;
-  private final CostAveragingInterface costAverageCalculator;
-  private String path;
+  private final CostAveraging costAverageCalculator;
+  private final String path = "flex_portfolios";
 
 
   /**
@@ -40,27 +48,33 @@ public class FlexibleStockModel extends AbstractStockModel implements AdvancedMo
     InputStream input = new FileInputStream("src/config.properties");
     properties.load(input);
 
-    this.portfolio = new Portfolio();
     properties.setProperty("resource_file", "flex_portfolios");
-    this.fileParser = new JsonReadWrite(properties);
-    this.performanceGraph = new PerformanceGraph();
-    this.costAverageCalculator = new CostAveraging();
-    this.path = "flex_portfolios";
+    this.performanceGraph = new PerformanceGraph(
+            () -> getStockPrice().getTradingCalendar(properties));
+    this.costAverageCalculator = new CostAveraging(getStockPrice(), properties);
 
     populatePortfolios();
   }
 
+  /**
+   * constructor to create the view of a model for the session of a user. It shares everything
+   * the model has cached and does not run the cost averaging strategies again.
+   *
+   * @param model   model the view is created from.
+   * @param context context of the user of the session.
+   */
+  private FlexibleStockModel(FlexibleStockModel model, ModelContext context) {
+    super(model, context);
+    this.properties = model.properties;
+    this.performanceGraph = model.performanceGraph;
+    this.costAverageCalculator = model.costAverageCalculator.forSession(context);
+  }
+
   private void populatePortfolios() {
     List<String> pfList = getPortFolioList();
     List<String> strategyFileList = costAverageCalculator.getStrategyList();
-    Strategy dummyStrategy = new Strategy();
-    ReadWriteInterface<Strategy> strategyReadWriteInterface = new StrategyReadWrite();
     for (int i = 0; i < strategyFileList.size(); i++) {
-      path = "strategy";
-      StrategyInterface currentStrategy = strategyReadWriteInterface.readFromFile(
-              getCorrectFile(i + 1, strategyFileList),
-              dummyStrategy);
-      path = "flex_portfolios";
+      StrategyInterface currentStrategy = costAverageCalculator.readStrategy(i + 1);
       for (String s : currentStrategy.getPfList()) {
         if (pfList.contains(s)) {
           int pfNumber = pfList.indexOf(s) + 1;
@@ -80,10 +94,8 @@ public class FlexibleStockModel extends AbstractStockModel implements AdvancedMo
 
   private String getStartDate(int pfNumber) {
     File tempFile = getCorrectFile(pfNumber, getPortFolioList());
-    ReadWriteInterface<Portfolio> tempParser = getCorrectFileParser();
-    Portfolio tempPf = new Portfolio();
-    tempPf.setDate(new SimpleDateFormat("yyyy-MM-dd").format(new Date()));
-    return tempParser.readFromFile(tempFile, tempPf).getDate();
+    String today = new SimpleDateFormat("yyyy-MM-dd").format(new Date());
+    return getRepository().read(tempFile, today).getDate();
   }
 
   @Override
@@ -96,6 +108,54 @@ public class FlexibleStockModel extends AbstractStockModel implements AdvancedMo
     return new JsonReadWrite(properties);
   }
 
+  /**
+   * returns the parser for the format of a portfolio file, which is told by its extension.
+   *
+   * @param fileName name or extension of the portfolio file.
+   * @return parser that reads and writes files of that format.
+   */
+  private AbstractPortfolioReadWrite getParser(String fileName) {
+    return getRepository().getParser(fileName);
+  }
+
+  /**
+   * returns the repository that holds the flexible portfolios in memory. It is shared by every
+   * model, so that a trade which was not written to its file yet is seen by all of them.
+   *
+   * @return repository of flexible portfolios.
+   */
+  private PortfolioRepository getRepository() {
+    synchronized (FlexibleStockModel.class) {
+      if (repository == null) {
+        repository = new PortfolioRepository(properties);
+      }
+      return repository;
+    }
+  }
+
+  /**
+   * returns the pool that values the portfolios of a user at once. It is shared by every model
+   * and has at most "valuation_threads" threads, so that valuing many portfolios neither starts
+   * a thread for each of them nor takes the common fork join pool from the rest of the
+   * application.
+   *
+   * @return pool of valuation threads.
+   */
+  private ExecutorService getValuationPool() {
+    synchronized (FlexibleStockModel.class) {
+      if (valuationPool == null) {
+        int threads = Integer.parseInt(properties.getProperty("valuation_threads",
+                String.valueOf(DEFAULT_VALUATION_THREADS)));
+        valuationPool = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+          Thread thread = new Thread(r, "portfolio-valuation");
+          thread.setDaemon(true);
+          return thread;
+        });
+      }
+      return valuationPool;
+    }
+  }
+
 
   /**
    * Performs operations necessary to add buy or sell transactions in flexible portfolio.
@@ -113,13 +173,18 @@ public class FlexibleStockModel extends AbstractStockModel implements AdvancedMo
   @Override
   public String transact(Map<String, Double> stockMap, int pfNumber, double commission,
                          String date, char op) {
+    return transact(getContext(), stockMap, pfNumber, commission, date, op);
+  }
+
+  private String transact(ModelContext context, Map<String, Double> stockMap, int pfNumber,
+                          double commission, String date, char op) {
 
     if (pfNumber < 0) {
       throw new RuntimeException("No such portfolio exists. " +
               "Please enter a valid portfolio number.");
     }
 
-    String jsonFilename;
+    String filename;
     Portfolio portfolio = createPortfolio(stockMap);
 
     BaseStockPriceInterface stockPrice = getStockPrice();
@@ -144,21 +209,22 @@ public class FlexibleStockModel extends AbstractStockModel implements AdvancedMo
     portfolio.setOperation(op);
 
     if (pfNumber == 0) {
-      List<String> files = getPortFolioList();
-      jsonFilename = createPortfolioFile(".json", fileParser, portfolio, files);
+      String fileType = getCorrectFileType();
+      filename = createPortfolioFile(context, fileType, getParser(fileType), portfolio)
+              + fileType;
     } else {
 
       try {
-        List<String> files = getPortFolioList();
-        File file = getCorrectFile(pfNumber, files);
-        fileParser.writeToFile(file, portfolio);
-        jsonFilename = getUser() + pfNumber;
+        List<String> files = getFileList(context);
+        File file = getCorrectFile(context, pfNumber, files);
+        getRepository().write(file, portfolio);
+        filename = file.getName();
       } catch (RuntimeException e) {
         throw new RuntimeException(e.getMessage());
       }
     }
 
-    return jsonFilename + getCorrectFileType();
+    return filename;
   }
 
   /**
@@ -172,18 +238,36 @@ public class FlexibleStockModel extends AbstractStockModel implements AdvancedMo
   @Override
   public double calculateCostBasis(int pfNumber, String date) {
 
-    File file = getCorrectFile(pfNumber, getPortFolioList());
-    Portfolio pf = new Portfolio();
-    pf.setDate(date);
-    pf = fileParser.readFromFile(file, pf);
-
+    ModelContext context = getContext();
+    File file = getCorrectFile(context, pfNumber, getFileList(context));
+    return getRepository().costBasisAt(file, date);
+  }
 
-    double costBasis = 0.0;
+  /**
+   * returns the cost of the shares of each stock still held in a portfolio at a specified date,
+   * as per the lot accounting method.
+   *
+   * @param pfNumber portfolio number selected by user among the list of portfolios.
+   * @param date     specified date in yyyy-mm-dd.
+   * @param method   "FIFO" to sell the shares bought first, or "AVERAGE" for average cost.
+   * @return map of stock symbol and cost of its shares held, in the order they were first bought.
+   */
+  @Override
+  public Map<String, Double> calculateOpenCostBasis(int pfNumber, String date, String method) {
+    CostBasisLedger.LotMethod lotMethod;
+    try {
+      lotMethod = CostBasisLedger.LotMethod.valueOf(method.toUpperCase());
+    } catch (IllegalArgumentException e) {
+      throw new RuntimeException("Invalid lot accounting method " + method);
+    }
 
-    for (int i = 0; i < pf.getSize(); i++) {
-      costBasis += Math.abs(pf.getPrice().get(i) * pf.getQuantity().get(i));
+    ModelContext context = getContext();
+    File file = getCorrectFile(context, pfNumber, getFileList(context));
+    Map<String, Double> costs = new LinkedHashMap<>();
+    for (CostBasisLedger.Lot lot : getRepository().openLots(file, date, lotMethod)) {
+      costs.merge(lot.getSymbol(), lot.getCost(), Double::sum);
     }
-    return costBasis;
+    return costs;
   }
 
   /**
@@ -195,24 +279,73 @@ public class FlexibleStockModel extends AbstractStockModel implements AdvancedMo
    */
   @Override
   public double calculateValuation(int pfNumber, String date) {
-    Portfolio pf = new Portfolio();
-    pf = removeDuplicates(pf);
-    pf.setDate(date);
+    ModelContext context = getContext();
+    return calculateValuation(getCorrectFile(context, pfNumber, getFileList(context)), date);
+  }
+
+  /**
+   * returns valuation of every portfolio of the user at a specified date. Each portfolio is
+   * valued on a thread of the valuation pool from its own holdings snapshot, and prices
+   * come from the shared price cache, which loads every symbol once however many portfolios
+   * hold it. If a portfolio cannot be valued, the failure is thrown.
+   *
+   * @param date specified date in yyyy-mm-dd.
+   * @return map of portfolio file name and its total valuation, in the order of the portfolio
+   *         list.
+   */
+  @Override
+  public Map<String, Double> calculateAllValuations(String date) {
+    ModelContext context = getContext();
+    List<String> files = getFileList(context);
+    File folder = context.getDirectory(getPath());
+
+    List<Future<Double>> valuations = new ArrayList<>();
+    for (String file : files) {
+      valuations.add(getValuationPool().submit(
+              () -> calculateValuation(new File(folder, file), date)));
+    }
 
+    Map<String, Double> result = new LinkedHashMap<>();
     try {
-      setPortfolio(pf);
-      PortfolioInterface portfolio = getPortFolioAtDate(pfNumber, date);
+      for (int i = 0; i < files.size(); i++) {
+        result.put(files.get(i), valuations.get(i).get());
+      }
+    } catch (ExecutionException e) {
+      throw new RuntimeException(e.getCause().getMessage());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e.getMessage());
+    } finally {
+      for (Future<Double> valuation : valuations) {
+        valuation.cancel(false);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * returns valuation of a portfolio file at a specified date. It works on a holdings snapshot
+   * of its own and does not touch the portfolio object of the model, so it can run on several
+   * threads at once. The result is remembered by the repository until the next trade.
+   *
+   * @param file portfolio file.
+   * @param date specified date in yyyy-mm-dd.
+   * @return total valuation of the portfolio at the date.
+   */
+  private double calculateValuation(File file, String date) {
+    return getRepository().memoize(file, "value " + date, () -> {
+      Portfolio holdings = getRepository().readHoldings(file, date);
+      double[] prices = getStockPrice().getStockPricesByApi(
+              holdings.getSymbol().toArray(new String[0]), date, properties);
 
       double valuation = 0;
-      for (int i = 0; i < portfolio.getSize(); i++) {
-        if (portfolio.getPrice().get(i) >= 0) {
-          valuation += portfolio.getPrice().get(i) * portfolio.getQuantity().get(i);
+      for (int i = 0; i < prices.length; i++) {
+        if (prices[i] >= 0) {
+          valuation += prices[i] * holdings.getQuantity().get(i);
         }
       }
       return valuation;
-    } catch (IOException e) {
-      throw new RuntimeException(e);
-    }
+    });
   }
 
   /**
@@ -225,9 +358,12 @@ public class FlexibleStockModel extends AbstractStockModel implements AdvancedMo
    */
   @Override
   public PortfolioInterface examineFlexPortfolio(int pfNumber, String date) throws IOException {
-    Portfolio pf = getPortfolio();
-    pf.setDate(date);
-    pf = examinePortfolioHelper(pfNumber);
+    return examineFlexPortfolio(getContext(), pfNumber, date);
+  }
+
+  private PortfolioInterface examineFlexPortfolio(ModelContext context, int pfNumber,
+                                                  String date) {
+    Portfolio pf = examinePortfolioHelper(context, pfNumber, date);
 
     pf = removeDuplicates(pf);
     pf.setDate(date);
@@ -248,28 +384,29 @@ public class FlexibleStockModel extends AbstractStockModel implements AdvancedMo
   public Map<String, String> getPerformance(String startDate, String endDate, int pfNumber)
           throws IOException {
 
-    BaseStockPriceInterface sp = new StockPrice();
+    ModelContext context = getContext();
+    BaseStockPriceInterface sp = getStockPrice();
     Map<String, String> modelMap = performanceGraph.getTimeIntervalMap(startDate, endDate);
     Map<String, Double> viewMap = new LinkedHashMap<>();
 
-    try {
-      for (Map.Entry<String, String> entry : modelMap.entrySet()) {
-        char ch = entry.getValue().charAt(0);
-        if (ch == 'm') {
-          viewMap.put(entry.getKey(), getMonthlyYearlyValuation(pfNumber,
-                  entry.getValue().substring(1),
-                  sp, ch));
-        } else if (ch == 'd') {
-          viewMap.put(entry.getKey(), calculateValuation(pfNumber,
-                  entry.getValue().substring(1)));
-        } else if (ch == 'y') {
-          viewMap.put(entry.getKey(), getMonthlyYearlyValuation(pfNumber,
-                  entry.getValue().substring(1),
-                  sp, ch));
-        }
-      }
-    } catch (ParseException e) {
-      throw new RuntimeException(" error in getting yearly/monthly valuation" + e.getMessage());
+    int[] days = new int[modelMap.size()];
+    int i = 0;
+    for (String value : modelMap.values()) {
+      days[i++] = PriceSeries.toEpochDay(value.substring(1));
+    }
+    if (days.length == 0) {
+      return performanceGraph.graphScaling(viewMap);
+    }
+    String firstDate = PriceSeries.toDateString(Arrays.stream(days).min().getAsInt());
+    String lastDate = PriceSeries.toDateString(Arrays.stream(days).max().getAsInt());
+
+    File file = getCorrectFile(context, pfNumber, getFileList(context));
+    double[] valuations = getRepository().getCheckpoints(file).valuesAt(days,
+            symbol -> sp.getPriceRange(symbol, firstDate, lastDate, properties));
+
+    i = 0;
+    for (String key : modelMap.keySet()) {
+      viewMap.put(key, valuations[i++]);
     }
 
     return performanceGraph.graphScaling(viewMap);
@@ -284,22 +421,23 @@ public class FlexibleStockModel extends AbstractStockModel implements AdvancedMo
    */
   @Override
   public String saveFlexPortfolioFile(String sourceFile) {
+    ModelContext context = getContext();
     String custom_file_path = "";
     try {
-      Portfolio pf = new Portfolio();
-      properties.setProperty("custom_file", "true");
-      super.setPortfolio(pf);
-      String filename = super.createPortfolioFile(".json",
-              fileParser, portfolio, getPortFolioList());
-      custom_file_path = properties.getProperty("resource_file") + "/"
-              + getUser() + "/" + filename + ".json";
-      properties.setProperty("custom_file_path", custom_file_path);
-      fileParser.readFromFile(new File(sourceFile), pf);
-      properties.setProperty("custom_file", "false");
+      String fileType = getCorrectFileType();
+      AbstractPortfolioReadWrite parser = getParser(fileType);
+      String filename = super.createPortfolioFile(context, fileType, parser, new Portfolio());
+      custom_file_path = context.getDirectory(getPath()) + "/" + filename + fileType;
+      File target = new File(custom_file_path);
+      getRepository().release(target);
+      parser.importFromFile(new File(sourceFile), target, getStockPrice());
       return filename;
     } catch (Exception e) {
       File file = new File(custom_file_path);
+      getRepository().release(file);
       file.delete();
+      DirectoryListing.of(file.getAbsoluteFile().getParentFile()).removed(file.getName());
+      new TransactionLog(file).delete();
       throw new RuntimeException(e.getMessage());
     }
   }
@@ -309,6 +447,11 @@ public class FlexibleStockModel extends AbstractStockModel implements AdvancedMo
     return super.authenticateCredentials(user, pwd);
   }
 
+  @Override
+  public AdvancedModelInterface forSession(String user, String pwd) {
+    return new FlexibleStockModel(this, login(user, pwd));
+  }
+
   /**
    * returns the username currently logged in.
    *
@@ -348,11 +491,17 @@ public class FlexibleStockModel extends AbstractStockModel implements AdvancedMo
   public String createCostAveragePortfolio(Map<String, Double> weightMap, double totalCost,
                                            int pfNumber, double commission, String startDate,
                                            String endDate, int period, char op) {
+    ModelContext context = getContext();
     try {
-      List<String> intervals = costAverageCalculator.getDates(startDate, endDate, period);
-      String fileName = createWeightedPortfolio(weightMap, totalCost, pfNumber,
-              commission, startDate);
-      List<String> pfList = getPortFolioList();
+      List<String> dates = new ArrayList<>();
+      dates.add(startDate);
+      dates.addAll(costAverageCalculator.getDates(startDate, endDate, period));
+      List<Map<String, Double>> stockMaps = costAverageCalculator.getStockMaps(weightMap,
+              totalCost, commission, dates, properties);
+
+      String fileName = transact(context, stockMaps.get(0), pfNumber, commission, startDate,
+              'b');
+      List<String> pfList = getFileList(context);
       if (pfNumber == 0) {
         for (int i = 0; i < pfList.size(); i++) {
           if (pfList.get(i).equals(fileName)) {
@@ -361,8 +510,9 @@ public class FlexibleStockModel extends AbstractStockModel implements AdvancedMo
         }
       }
 
-      for (String date : intervals) {
-        fileName = createWeightedPortfolio(weightMap, totalCost, pfNumber, commission, date);
+      for (int i = 1; i < dates.size(); i++) {
+        fileName = transact(context, stockMaps.get(i), pfNumber, commission, dates.get(i),
+                'b');
       }
 
       if (op == 'n') {
@@ -388,40 +538,37 @@ public class FlexibleStockModel extends AbstractStockModel implements AdvancedMo
     return fileName;
   }
 
-  private Double getMonthlyYearlyValuation(int pfNumber, String date,
-                                           BaseStockPriceInterface stockPrice, Character op)
-          throws IOException, ParseException {
-    String correctDate = "";
-    String yearDate;
-    DateFormat df = new SimpleDateFormat("yyyy-MM-dd");
-    Date tempDate = Calendar.getInstance().getTime();
-    String currentDate = df.format(tempDate);
-
-    String dummyStock = getTickerList().get(0);
-
-    if (op == 'm') {
-      correctDate = stockPrice.getMonthEndDateByApi(dummyStock, date, properties);
-    } else if (op == 'y') {
-      if (date.substring(0, 5).equals(currentDate.substring(0, 5))) {
-        correctDate = currentDate;
-      } else {
-        yearDate = (date.substring(0, 5)) + "12" + date.substring(7);
-        correctDate = stockPrice.getMonthEndDateByApi(dummyStock, yearDate, properties);
-      }
-
+  @Override
+  public boolean isTradingDay(String date) {
+    int epochDay;
+    try {
+      epochDay = PriceSeries.toEpochDay(date);
+    } catch (IllegalArgumentException e) {
+      return false;
     }
 
-    PortfolioInterface portfolio = examineFlexPortfolio(pfNumber, correctDate);
-
-    double sum = 0.0;
-
-    for (int i = 0; i < portfolio.getSize(); i++) {
-      sum += stockPrice.getStockPriceByApiMonthly(portfolio.getSymbol().get(i),
-              correctDate, properties) * portfolio.getQuantity().get(i);
+    try {
+      return getStockPrice().getTradingCalendar(properties).isTradingDay(epochDay);
+    } catch (RuntimeException e) {
+      DayOfWeek day = LocalDate.ofEpochDay(epochDay).getDayOfWeek();
+      return day != DayOfWeek.SATURDAY && day != DayOfWeek.SUNDAY;
     }
-    return sum;
   }
 
+  /**
+   * gets the holdings of the portfolio among the list of portfolio options based on the pfNumber
+   * passed, at the date passed.
+   *
+   * @param context  context of the request.
+   * @param pfNumber portfolio number selected by user among the list of portfolios.
+   * @param date     specified date in yyyy-mm-dd.
+   * @return portfolio with the symbols and quantities held.
+   */
+  @Override
+  protected Portfolio examinePortfolioHelper(ModelContext context, int pfNumber, String date) {
+    File file = getCorrectFile(context, pfNumber, getFileList(context));
+    return getRepository().readHoldings(file, date);
+  }
 
   private Portfolio removeDuplicates(Portfolio pf) {
     List<String> symbol = pf.getSymbol();
@@ -0,0 +1,291 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * A class which answers "what did the portfolio hold on day D" without going through every
+ * transaction. It keeps the transactions of a portfolio sorted by day as signed quantities, and
+ * for every month with transactions a checkpoint of the quantity of each stock held at the end of
+ * that month. The holdings at a day are the last checkpoint on or before the day plus the
+ * transactions after it, so at most one month of transactions is replayed.
+ * Checkpoints are never changed once built; adding transactions returns new checkpoints, so they
+ * can be read by several threads while a trade is added.
+ * The checkpoints are kept with the portfolio in the PortfolioRepository rather than in a file:
+ * loading a portfolio reads all of its transactions anyway, and building the checkpoints from
+ * them costs one sort, far less than reading a stored copy would save.
+ * This class is package private that is accessible to only classes present in model package.
+ */
+class HoldingsCheckpoints {
+
+  private static final HoldingsCheckpoints EMPTY = new HoldingsCheckpoints(new String[0],
+          new LinkedHashMap<>(), new int[0], new int[0], new int[0], new double[0], 0,
+          new AtomicInteger(), new int[0], new int[0], new double[0][]);
+
+  private final String[] symbols;
+  private final Map<String, Integer> symbolIndex;
+  private final int[] firstDays;
+  private final int[] days;
+  private final int[] rowSymbols;
+  private final double[] rowQuantities;
+  private final int size;
+  private final AtomicInteger rowsEnd;
+  private final int[] checkpointDays;
+  private final int[] checkpointRows;
+  private final double[][] checkpointQuantities;
+
+  private HoldingsCheckpoints(String[] symbols, Map<String, Integer> symbolIndex, int[] firstDays,
+                              int[] days, int[] rowSymbols, double[] rowQuantities, int size,
+                              AtomicInteger rowsEnd, int[] checkpointDays, int[] checkpointRows,
+                              double[][] checkpointQuantities) {
+    this.symbols = symbols;
+    this.symbolIndex = symbolIndex;
+    this.firstDays = firstDays;
+    this.days = days;
+    this.rowSymbols = rowSymbols;
+    this.rowQuantities = rowQuantities;
+    this.size = size;
+    this.rowsEnd = rowsEnd;
+    this.checkpointDays = checkpointDays;
+    this.checkpointRows = checkpointRows;
+    this.checkpointQuantities = checkpointQuantities;
+  }
+
+  /**
+   * builds the checkpoints of a portfolio from its transactions.
+   *
+   * @param history every transaction of the portfolio.
+   * @return checkpoints of the portfolio.
+   */
+  static HoldingsCheckpoints build(PortfolioHistory history) {
+    List<Transaction> transactions = new ArrayList<>(history.getBuys());
+    transactions.addAll(history.getSells());
+    return EMPTY.add(transactions);
+  }
+
+  /**
+   * returns the checkpoints with the given transactions added, leaving these checkpoints as they
+   * are so that they can still be read meanwhile. Only the checkpoints from the month of the
+   * earliest new transaction onward are computed again, so a trade dated after every other one
+   * costs at most one month of transactions. The rows of the transactions are shared with these
+   * checkpoints when the new ones go at their end, and copied otherwise.
+   *
+   * @param transactions transactions to be added, in any order.
+   * @return checkpoints of the portfolio including the transactions.
+   */
+  HoldingsCheckpoints add(List<Transaction> transactions) {
+    if (transactions.isEmpty()) {
+      return this;
+    }
+
+    Map<String, Integer> index = symbolIndex;
+    for (Transaction transaction : transactions) {
+      if (!index.containsKey(transaction.getSymbol())) {
+        if (index == symbolIndex) {
+          index = new LinkedHashMap<>(symbolIndex);
+        }
+        index.put(transaction.getSymbol(), index.size());
+      }
+    }
+    String[] newSymbols = index == symbolIndex ? symbols
+            : index.keySet().toArray(new String[0]);
+    int[] newFirstDays = Arrays.copyOf(firstDays, newSymbols.length);
+    Arrays.fill(newFirstDays, symbols.length, newFirstDays.length, Integer.MAX_VALUE);
+
+    List<Transaction> sorted = new ArrayList<>(transactions);
+    sorted.sort(Comparator.comparingInt(Transaction::getDay));
+    int firstNew = sorted.get(0).getDay();
+    int newSize = size + sorted.size();
+
+    int insertAt = size;
+    while (insertAt > 0 && days[insertAt - 1] > firstNew) {
+      insertAt--;
+    }
+
+    int[] newDays = days;
+    int[] newRowSymbols = rowSymbols;
+    double[] newRowQuantities = rowQuantities;
+    AtomicInteger newRowsEnd = rowsEnd;
+    if (insertAt < size || newSize > days.length || !rowsEnd.compareAndSet(size, newSize)) {
+      int capacity = Math.max(16, newSize + newSize / 2);
+      newDays = Arrays.copyOf(days, capacity);
+      newRowSymbols = Arrays.copyOf(rowSymbols, capacity);
+      newRowQuantities = Arrays.copyOf(rowQuantities, capacity);
+      newRowsEnd = new AtomicInteger(newSize);
+    }
+
+    int old = insertAt;
+    int added = 0;
+    for (int row = insertAt; row < newSize; row++) {
+      if (added < sorted.size() && (old == size || sorted.get(added).getDay() < days[old])) {
+        Transaction transaction = sorted.get(added++);
+        newDays[row] = transaction.getDay();
+        newRowSymbols[row] = index.get(transaction.getSymbol());
+        newRowQuantities[row] = transaction.getOperation() == 's'
+                ? -transaction.getQuantity() : transaction.getQuantity();
+      } else {
+        newDays[row] = days[old];
+        newRowSymbols[row] = rowSymbols[old];
+        newRowQuantities[row] = rowQuantities[old];
+        old++;
+      }
+      int symbol = newRowSymbols[row];
+      newFirstDays[symbol] = Math.min(newFirstDays[symbol], newDays[row]);
+    }
+
+    int keep = 0;
+    while (keep < checkpointDays.length && checkpointDays[keep] < firstNew) {
+      keep++;
+    }
+    List<Integer> cpDays = new ArrayList<>();
+    List<Integer> cpRows = new ArrayList<>();
+    List<double[]> cpQuantities = new ArrayList<>();
+    double[] held = keep == 0 ? new double[newSymbols.length]
+            : Arrays.copyOf(checkpointQuantities[keep - 1], newSymbols.length);
+    for (int row = keep == 0 ? 0 : checkpointRows[keep - 1]; row < newSize; row++) {
+      held[newRowSymbols[row]] += newRowQuantities[row];
+      int monthEnd = monthEnd(newDays[row]);
+      if (row == newSize - 1 || newDays[row + 1] > monthEnd) {
+        cpDays.add(monthEnd);
+        cpRows.add(row + 1);
+        cpQuantities.add(held.clone());
+      }
+    }
+
+    int[] newCheckpointDays = Arrays.copyOf(checkpointDays, keep + cpDays.size());
+    int[] newCheckpointRows = Arrays.copyOf(checkpointRows, keep + cpDays.size());
+    double[][] newCheckpointQuantities = Arrays.copyOf(checkpointQuantities,
+            keep + cpDays.size());
+    for (int i = 0; i < cpDays.size(); i++) {
+      newCheckpointDays[keep + i] = cpDays.get(i);
+      newCheckpointRows[keep + i] = cpRows.get(i);
+      newCheckpointQuantities[keep + i] = cpQuantities.get(i);
+    }
+
+    return new HoldingsCheckpoints(newSymbols, index, newFirstDays, newDays, newRowSymbols,
+            newRowQuantities, newSize, newRowsEnd, newCheckpointDays, newCheckpointRows,
+            newCheckpointQuantities);
+  }
+
+  private static int monthEnd(int epochDay) {
+    int key = PriceSeries.monthKey(epochDay);
+    return PriceSeries.epochDay((key + 1) / 12, (key + 1) % 12 + 1, 1) - 1;
+  }
+
+  /**
+   * returns the quantity held of every stock that was traded on or before the given day, in the
+   * order the stocks were first recorded. Stocks which were sold completely are kept with a
+   * quantity of zero.
+   *
+   * @param epochDay day as an epoch day.
+   * @return portfolio with the symbols and quantities held, and no prices.
+   */
+  Portfolio holdingsAt(int epochDay) {
+    int k = Arrays.binarySearch(checkpointDays, epochDay);
+    if (k < 0) {
+      k = -k - 2;
+    }
+
+    double[] held;
+    int row;
+    if (k < 0) {
+      held = new double[symbols.length];
+      row = 0;
+    } else {
+      held = Arrays.copyOf(checkpointQuantities[k], symbols.length);
+      row = checkpointRows[k];
+    }
+    for (; row < size && days[row] <= epochDay; row++) {
+      held[rowSymbols[row]] += rowQuantities[row];
+    }
+
+    List<String> symbol = new ArrayList<>();
+    List<Double> quantity = new ArrayList<>();
+    for (int i = 0; i < symbols.length; i++) {
+      if (firstDays[i] <= epochDay) {
+        symbol.add(symbols[i]);
+        quantity.add(held[i]);
+      }
+    }
+    return new Portfolio(symbol, quantity, new ArrayList<>());
+  }
+
+  /**
+   * returns the value of the portfolio at each of the given days. The days are visited in order
+   * while the holdings are carried forward from the checkpoint before the first of them, so each
+   * transaction is applied once and a day costs one price lookup per stock held at that day,
+   * instead of rebuilding the holdings for every day. A stock is valued at its close on or before
+   * the day; a stock without such a price adds nothing.
+   *
+   * @param epochDays days to value the portfolio at, in any order.
+   * @param prices    gives the prices of a stock; it is asked once per stock that is held.
+   * @return value at each day, in the order of the days passed.
+   */
+  double[] valuesAt(int[] epochDays, Function<String, PriceSlice> prices) {
+    int[] order = IntStream.range(0, epochDays.length).boxed()
+            .sorted(Comparator.comparingInt(i -> epochDays[i]))
+            .mapToInt(Integer::intValue).toArray();
+    double[] values = new double[epochDays.length];
+    if (order.length == 0) {
+      return values;
+    }
+
+    int k = Arrays.binarySearch(checkpointDays, epochDays[order[0]]);
+    if (k < 0) {
+      k = -k - 2;
+    }
+    double[] held = k < 0 ? new double[symbols.length]
+            : Arrays.copyOf(checkpointQuantities[k], symbols.length);
+    int row = k < 0 ? 0 : checkpointRows[k];
+
+    int[] active = new int[symbols.length];
+    int[] slot = new int[symbols.length];
+    int activeCount = 0;
+    for (int i = 0; i < symbols.length; i++) {
+      slot[i] = -1;
+      if (held[i] != 0) {
+        slot[i] = activeCount;
+        active[activeCount++] = i;
+      }
+    }
+
+    PriceSlice[] slices = new PriceSlice[symbols.length];
+    for (int index : order) {
+      int day = epochDays[index];
+      for (; row < size && days[row] <= day; row++) {
+        int symbol = rowSymbols[row];
+        held[symbol] += rowQuantities[row];
+        if (held[symbol] != 0 && slot[symbol] < 0) {
+          slot[symbol] = activeCount;
+          active[activeCount++] = symbol;
+        } else if (held[symbol] == 0 && slot[symbol] >= 0) {
+          int last = active[--activeCount];
+          active[slot[symbol]] = last;
+          slot[last] = slot[symbol];
+          slot[symbol] = -1;
+        }
+      }
+
+      double value = 0;
+      for (int j = 0; j < activeCount; j++) {
+        int symbol = active[j];
+        if (slices[symbol] == null) {
+          slices[symbol] = prices.apply(symbols[symbol]);
+        }
+        double price = slices[symbol].closeAsOf(day);
+        if (price >= 0) {
+          value += price * held[symbol];
+        }
+      }
+      values[index] = value;
+    }
+    return values;
+  }
+}
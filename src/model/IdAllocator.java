@@ -0,0 +1,78 @@
+package model;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A class which hands out the numbers of new portfolio or strategy files of a user, i.e. the n in
+ * "admin" + n. The last number in use is found once from the listing of the directory and then
+ * counted up atomically, so that new files are created without going through the directory and
+ * several threads can create files at the same time. Allocators are shared by every model.
+ * This class is package private that is accessible to only classes present in model package.
+ */
+class IdAllocator {
+
+  private static final Map<File, IdAllocator> allocators = new HashMap<>();
+
+  private final File directory;
+  private final String prefix;
+  private final AtomicInteger lastId;
+
+  private IdAllocator(File directory, String prefix) {
+    this.directory = directory;
+    this.prefix = prefix;
+    this.lastId = new AtomicInteger(findLastId());
+  }
+
+  /**
+   * returns the allocator of the files of a user in the given directory.
+   *
+   * @param directory portfolio or strategy directory of the user.
+   * @param prefix    prefix of the file names, i.e. the name of the user.
+   * @return allocator shared by every caller asking for the same directory.
+   */
+  static synchronized IdAllocator of(File directory, String prefix) {
+    return allocators.computeIfAbsent(new File(directory.getAbsoluteFile(), prefix),
+            k -> new IdAllocator(directory, prefix));
+  }
+
+  private int findLastId() {
+    int last = 0;
+    for (String name : DirectoryListing.of(directory).getNames()) {
+      String base = name.split("\\.")[0];
+      if (!base.startsWith(prefix)) {
+        continue;
+      }
+      try {
+        last = Math.max(last, Integer.parseInt(base.substring(prefix.length())));
+      } catch (NumberFormatException e) {
+        // not a file created by the application.
+      }
+    }
+    return last;
+  }
+
+  /**
+   * creates an empty file with the next free number, creating the directory if needed.
+   *
+   * @param fileType extension of the file, e.g. ".json".
+   * @return the created file.
+   * @throws IOException when the file cannot be created.
+   */
+  File create(String fileType) throws IOException {
+    if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+      throw new IOException("Cannot create directory " + directory);
+    }
+
+    while (true) {
+      File file = new File(directory, prefix + lastId.incrementAndGet() + fileType);
+      if (file.createNewFile()) {
+        DirectoryListing.of(directory).added(file.getName());
+        return file;
+      }
+    }
+  }
+}
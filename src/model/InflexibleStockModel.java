@@ -19,7 +19,6 @@ public class InflexibleStockModel extends AbstractStockModel implements BaseMode
   private final ReadWrite fileParser;
   private final Properties properties;
   private final String path = "portfolios";
-  private Portfolio portfolio;
 
   /**
    * non parameterized constructor that initializes the instance of ReadWrite class,
@@ -32,10 +31,21 @@ public class InflexibleStockModel extends AbstractStockModel implements BaseMode
     properties.load(input);
 
     this.fileParser = new ReadWrite(properties);
-    this.portfolio = new Portfolio();
 
   }
 
+  /**
+   * constructor to create the view of a model for the session of a user.
+   *
+   * @param model   model the view is created from.
+   * @param context context of the user of the session.
+   */
+  private InflexibleStockModel(InflexibleStockModel model, ModelContext context) {
+    super(model, context);
+    this.fileParser = model.fileParser;
+    this.properties = model.properties;
+  }
+
   /**
    * returns portfolio at a specified date.
    *
@@ -63,7 +73,7 @@ public class InflexibleStockModel extends AbstractStockModel implements BaseMode
     Portfolio portfolio = createPortfolio(stockMap);
 
     try {
-      portfolioName = createPortfolioFile(".txt", fileParser, portfolio, getPortFolioList());
+      portfolioName = createPortfolioFile(getContext(), ".txt", fileParser, portfolio);
     } catch (RuntimeException e) {
       throw new RuntimeException(e.getMessage());
     }
@@ -83,6 +93,11 @@ public class InflexibleStockModel extends AbstractStockModel implements BaseMode
     return super.authenticateCredentials(user, pwd);
   }
 
+  @Override
+  public BaseModelInterface forSession(String user, String pwd) {
+    return new InflexibleStockModel(this, login(user, pwd));
+  }
+
   /**
    * gets the list of portfolio files created by the user.
    *
@@ -138,8 +153,8 @@ public class InflexibleStockModel extends AbstractStockModel implements BaseMode
     try {
       ReadWriteInterface<Portfolio> parser = getCorrectFileParser();
       File myFile = new File(sourceFile);
-      portfolio = parser.readFromFile(myFile, portfolio);
-      return createPortfolioFile(getCorrectFileType(), parser, portfolio, getPortFolioList());
+      Portfolio portfolio = parser.readFromFile(myFile, new Portfolio());
+      return createPortfolioFile(getContext(), getCorrectFileType(), parser, portfolio);
     } catch (Exception e) {
       throw new RuntimeException("There was a error in converting a custom portfolio file.\n"
               + e.getMessage());
@@ -154,7 +169,7 @@ public class InflexibleStockModel extends AbstractStockModel implements BaseMode
    */
   @Override
   public PortfolioInterface examinePortfolio(int pfNumber) throws IOException {
-    PortfolioInterface pf = super.examinePortfolioHelper(pfNumber);
+    PortfolioInterface pf = super.examinePortfolioHelper(getContext(), pfNumber, null);
     return pf;
   }
 
@@ -0,0 +1,147 @@
+package model;
+
+import org.json.simple.parser.ContentHandler;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Streaming reader of flexible portfolio json files, i.e. a "Buy" and a "Sell" array of records
+ * with a "Symbol", "Quantity", "Date" and optional "Price". Every record is handed over as a
+ * Transaction as soon as it has been read, so the file is read in one pass without building the
+ * whole document in memory. Besides the two arrays only the "Compacted" entry is read.
+ * This class is package private that is accessible to only classes present in model package.
+ */
+class JsonTransactionReader implements ContentHandler {
+
+  private final Consumer<Transaction> consumer;
+  private String compacted;
+  private int depth;
+  private char operation;
+  private String key;
+  private Object symbol;
+  private Object quantity;
+  private Object date;
+  private Object price;
+
+  private JsonTransactionReader(Consumer<Transaction> consumer) {
+    this.consumer = consumer;
+  }
+
+  /**
+   * reads every record of a portfolio json file.
+   *
+   * @param file     json file to read from.
+   * @param consumer receives each record in the order it appears in the file.
+   * @return the "Compacted" entry of the file, or null if there is none.
+   */
+  static String read(File file, Consumer<Transaction> consumer) {
+    try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+      JsonTransactionReader handler = new JsonTransactionReader(consumer);
+      new JSONParser().parse(reader, handler);
+      return handler.compacted;
+    } catch (IOException | ParseException e) {
+      throw new RuntimeException("Error occurred while parsing " + file.getName());
+    }
+  }
+
+  @Override
+  public void startJSON() {
+    depth = 0;
+  }
+
+  @Override
+  public void endJSON() {
+    // nothing left to hand over once the document ends.
+  }
+
+  @Override
+  public boolean startObject() {
+    depth++;
+    if (depth == 3) {
+      symbol = null;
+      quantity = null;
+      date = null;
+      price = null;
+    }
+    return true;
+  }
+
+  @Override
+  public boolean endObject() {
+    if (depth == 3 && operation != 0) {
+      consumer.accept(toTransaction());
+    }
+    depth--;
+    return true;
+  }
+
+  @Override
+  public boolean startObjectEntry(String key) {
+    if (depth == 1) {
+      operation = key.equals("Buy") ? 'b' : key.equals("Sell") ? 's' : 0;
+      this.key = key;
+    } else if (depth == 3) {
+      this.key = key;
+    }
+    return true;
+  }
+
+  @Override
+  public boolean endObjectEntry() {
+    return true;
+  }
+
+  @Override
+  public boolean startArray() {
+    depth++;
+    return true;
+  }
+
+  @Override
+  public boolean endArray() {
+    depth--;
+    return true;
+  }
+
+  @Override
+  public boolean primitive(Object value) {
+    if (depth == 1 && "Compacted".equals(key) && value instanceof String) {
+      compacted = (String) value;
+    }
+    if (depth != 3) {
+      return true;
+    }
+    switch (key) {
+      case "Symbol":
+        symbol = value;
+        break;
+      case "Quantity":
+        quantity = value;
+        break;
+      case "Date":
+        date = value;
+        break;
+      case "Price":
+        price = value;
+        break;
+      default:
+        break;
+    }
+    return true;
+  }
+
+  private Transaction toTransaction() {
+    if (!(symbol instanceof String) || !(quantity instanceof Number)
+            || !(date instanceof String) || (price != null && !(price instanceof Number))) {
+      throw new RuntimeException("Invalid transaction record for " + symbol + " on " + date);
+    }
+    return new Transaction(operation, (String) symbol, ((Number) quantity).doubleValue(),
+            (String) date, price == null ? null : ((Number) price).doubleValue());
+  }
+}
@@ -0,0 +1,85 @@
+package model;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Helper class to read the binary portfolio and price files straight from a
+ * ByteBuffer instead of through a stream. Files of at least MAP_THRESHOLD bytes are memory mapped,
+ * so a read parses directly from the page cache and repeated reads of the same file do not copy
+ * it again; smaller files are read into the heap in one call, as mapping them costs more than it
+ * saves. The buffers use the byte order of DataOutputStream, which wrote the files.
+ * This class is package private that is accessible to only classes present in model package.
+ */
+class MappedFiles {
+
+  /**
+   * size in bytes from which a file is mapped instead of read.
+   */
+  static final long MAP_THRESHOLD = 64 * 1024;
+
+  private MappedFiles() {
+  }
+
+  /**
+   * returns the whole content of a file as a buffer positioned at its start.
+   *
+   * @param file file to be read.
+   * @return read only mapped buffer, or heap buffer for small files.
+   * @throws IOException when the file cannot be read or is too large to be mapped.
+   */
+  static ByteBuffer read(File file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException("File " + file.getName() + " is too large.");
+      }
+      if (size >= MAP_THRESHOLD) {
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      }
+
+      ByteBuffer buffer = ByteBuffer.allocate((int) size);
+      while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+        // keep reading until the buffer is full.
+      }
+      return buffer.flip();
+    }
+  }
+
+  /**
+   * reads a string written by DataOutputStream.writeUTF, i.e. an unsigned short length followed
+   * by that many bytes of modified UTF-8.
+   *
+   * @param buffer buffer positioned at the length.
+   * @return decoded string.
+   * @throws UTFDataFormatException when the bytes are not valid modified UTF-8.
+   */
+  static String getUTF(ByteBuffer buffer) throws UTFDataFormatException {
+    int length = buffer.getShort() & 0xffff;
+    if (length > buffer.remaining()) {
+      throw new BufferUnderflowException();
+    }
+    char[] chars = new char[length];
+    int count = 0;
+    int end = buffer.position() + length;
+    while (buffer.position() < end) {
+      int b = buffer.get() & 0xff;
+      if (b < 0x80) {
+        chars[count++] = (char) b;
+      } else if ((b & 0xe0) == 0xc0 && buffer.position() < end) {
+        chars[count++] = (char) (((b & 0x1f) << 6) | (buffer.get() & 0x3f));
+      } else if ((b & 0xf0) == 0xe0 && buffer.position() + 1 < end) {
+        chars[count++] = (char) (((b & 0x0f) << 12) | ((buffer.get() & 0x3f) << 6)
+                | (buffer.get() & 0x3f));
+      } else {
+        throw new UTFDataFormatException("Malformed string.");
+      }
+    }
+    return new String(chars, 0, count);
+  }
+}
@@ -0,0 +1,54 @@
+package model;
+
+import java.io.File;
+
+/**
+ * Immutable state of the session of a stock model, i.e. the user logged in. Every session gets a
+ * view of the model of its own which holds its context, so that sessions of several users can
+ * use the shared caches of one model at once without seeing each other's files.
+ * This class is package private that is accessible to only classes present in model package.
+ */
+final class ModelContext {
+
+  private final String user;
+  private final String pwd;
+
+  /**
+   * parameterized constructor to create the context of a user.
+   *
+   * @param user name of the user.
+   * @param pwd  password of the user, or null if nobody logged in.
+   */
+  ModelContext(String user, String pwd) {
+    this.user = user;
+    this.pwd = pwd;
+  }
+
+  /**
+   * returns the username of the user.
+   *
+   * @return username in string format.
+   */
+  String getUser() {
+    return user;
+  }
+
+  /**
+   * returns the password of the user.
+   *
+   * @return password in string format.
+   */
+  String getPwd() {
+    return pwd;
+  }
+
+  /**
+   * returns the directory of the files of the user under the given folder.
+   *
+   * @param path folder of the kind of file, e.g. "flex_portfolios".
+   * @return directory of the user.
+   */
+  File getDirectory(String path) {
+    return new File(path + "/" + user + "/");
+  }
+}
@@ -11,6 +11,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import static java.util.Calendar.DATE;
 import static java.util.Calendar.YEAR;
@@ -22,6 +23,17 @@ import static java.util.Calendar.YEAR;
  */
 public class PerformanceGraph implements PerformanceGraphInterface {
 
+  private final Supplier<TradingCalendar> calendar;
+
+  /**
+   * parameterized constructor that takes the shared trading calendar, which is used to move
+   * monthly and yearly points of the graph to the last trading day of their period.
+   *
+   * @param calendar supplier of the trading calendar, only invoked when a graph needs it.
+   */
+  PerformanceGraph(Supplier<TradingCalendar> calendar) {
+    this.calendar = calendar;
+  }
 
   /**
    * This function is used to convert the duration between start and end date
@@ -66,9 +78,9 @@ public class PerformanceGraph implements PerformanceGraphInterface {
         Calendar temp = getCalendar(date);
 
         if (op == 'm') {
-          perfMap.put(monthYear.format(date), op + sdf.format(date));
+          perfMap.put(monthYear.format(date), op + periodEnd(sdf.format(date), op));
         } else if (op == 'y') {
-          perfMap.put(String.valueOf(temp.get(YEAR)), op + sdf.format(date));
+          perfMap.put(String.valueOf(temp.get(YEAR)), op + periodEnd(sdf.format(date), op));
         } else {
           perfMap.put(sdf.format(date), op + sdf.format(date));
         }
@@ -149,6 +161,24 @@ public class PerformanceGraph implements PerformanceGraphInterface {
     return graphMap;
   }
 
+  /**
+   * returns the last trading day of the month ('m') or year ('y') of the given date. For the
+   * current year the current date is returned.
+   */
+  private String periodEnd(String date, char op) {
+    String currentDate = new SimpleDateFormat("yyyy-MM-dd").format(new Date());
+    if (op == 'y' && date.substring(0, 5).equals(currentDate.substring(0, 5))) {
+      return currentDate;
+    }
+
+    int day = PriceSeries.toEpochDay(op == 'y' ? date.substring(0, 5) + "12-01" : date);
+    int end = calendar.get().monthEnd(day);
+    if (end < 0) {
+      throw new RuntimeException(" error in getting yearly/monthly valuation for " + date);
+    }
+    return PriceSeries.toDateString(end);
+  }
+
   private Calendar getCalendar(Date date) {
     Calendar cal = Calendar.getInstance(Locale.US);
     cal.setTime(date);
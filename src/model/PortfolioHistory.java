@@ -0,0 +1,46 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class which holds every buy and sell transaction of a flexible portfolio in the order they
+ * were recorded.
+ * This class is package private that is accessible to only classes present in model package.
+ */
+class PortfolioHistory {
+
+  private final List<Transaction> buys;
+  private final List<Transaction> sells;
+
+  /**
+   * Non Parameterized constructor to create a history without any transactions.
+   */
+  PortfolioHistory() {
+    this.buys = new ArrayList<>();
+    this.sells = new ArrayList<>();
+  }
+
+  /**
+   * records a transaction at the end of the buys or the sells depending on its operation.
+   *
+   * @param transaction transaction to be recorded.
+   */
+  void add(Transaction transaction) {
+    if (transaction.getOperation() == 'b') {
+      buys.add(transaction);
+    } else if (transaction.getOperation() == 's') {
+      sells.add(transaction);
+    } else {
+      throw new IllegalArgumentException("Invalid operation " + transaction.getOperation());
+    }
+  }
+
+  List<Transaction> getBuys() {
+    return buys;
+  }
+
+  List<Transaction> getSells() {
+    return sells;
+  }
+}
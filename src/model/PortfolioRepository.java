@@ -0,0 +1,487 @@
+package model;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+
+/**
+ * A class which keeps the flexible portfolios that were used resident in memory, i.e. their
+ * transactions, position ledger, cost basis ledger and holdings checkpoints, so that repeated
+ * queries do not read and parse the portfolio files again.
+ * Trades are validated and applied in memory and written to the portfolio files behind the
+ * caller by a background thread, at most "portfolio_flush_delay_ms" milliseconds later. A delay
+ * of 0 writes every trade before returning, which is the default. A larger delay is faster but
+ * a trade is only durable once written, so trades acknowledged less than the delay before a crash
+ * are lost. Pending trades are also written on flush, before a file is handed over to other code
+ * and when the application exits; a failure to write them at exit is reported on stderr.
+ * Writes are group committed: one caller at a time writes the trades of every portfolio that are
+ * pending at that moment, while callers whose trades are covered by it just wait for it to end,
+ * so concurrent trades share one forced write per file instead of queuing one write each.
+ * A portfolio whose file was changed by other code is read again on its next use.
+ * Portfolio files are read and parsed without holding the lock of the repository, so loading one
+ * portfolio does not hold up queries on the others; concurrent callers for the same file wait for
+ * one load. At most "portfolio_cache_max_entries" portfolios are kept, the least recently used
+ * being dropped first, except those with trades not written yet.
+ * Results computed from a portfolio, such as its value at a date, are remembered per portfolio
+ * until its next trade, so repeated queries for the same dates are answered from memory.
+ * This class is package private that is accessible to only classes present in model package.
+ */
+class PortfolioRepository {
+
+  private static final int MAX_RESULTS = 1024;
+  private static final int DEFAULT_MAX_ENTRIES = 256;
+
+  private final Map<File, Entry> entries;
+  private final Map<File, CompletableFuture<Entry>> loading;
+  private final int maxEntries;
+  private final JsonReadWrite jsonParser;
+  private final BinaryReadWrite binaryParser;
+  private final long flushDelay;
+  private final ScheduledExecutorService writer;
+  private final Object commitLock;
+  private boolean flushScheduled;
+  private long writeSeq;
+  private long durableSeq;
+  private volatile RuntimeException flushFailure;
+
+  /**
+   * parameterized constructor to create an empty repository.
+   *
+   * @param properties config properties to be passed to the parsers and to retrieve the delay.
+   */
+  PortfolioRepository(Properties properties) {
+    this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    this.loading = new HashMap<>();
+    this.maxEntries = Integer.parseInt(properties.getProperty("portfolio_cache_max_entries",
+            String.valueOf(DEFAULT_MAX_ENTRIES)));
+    this.jsonParser = new JsonReadWrite(properties);
+    this.binaryParser = new BinaryReadWrite(properties);
+    this.flushDelay = Long.parseLong(properties.getProperty("portfolio_flush_delay_ms", "0"));
+    this.commitLock = new Object();
+    this.writer = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "portfolio-writer");
+      thread.setDaemon(true);
+      return thread;
+    });
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+      try {
+        flush();
+      } catch (RuntimeException e) {
+        System.err.println("Trades could not be written to the portfolio files: "
+                + e.getMessage());
+      }
+    }));
+  }
+
+  /**
+   * returns the parser for the format of a portfolio file, which is told by its extension.
+   *
+   * @param fileName name or extension of the portfolio file.
+   * @return parser that reads and writes files of that format.
+   */
+  AbstractPortfolioReadWrite getParser(String fileName) {
+    if (fileName.endsWith(BinaryReadWrite.FILE_TYPE)) {
+      return binaryParser;
+    }
+    return jsonParser;
+  }
+
+  /**
+   * returns every transaction of a portfolio on or before the date, like readFromFile of the
+   * parsers does.
+   *
+   * @param file portfolio file.
+   * @param date date in yyyy-MM-dd format.
+   * @return portfolio object with the transactions, sells first with negated quantities.
+   */
+  Portfolio read(File file, String date) {
+    return withEntry(file, entry -> entry.parser.generatePortfolio(entry.history, date));
+  }
+
+  /**
+   * returns the quantity held of every stock of a portfolio at the date.
+   *
+   * @param file portfolio file.
+   * @param date date in yyyy-MM-dd format.
+   * @return portfolio with the symbols and quantities held at the date, and no prices.
+   */
+  Portfolio readHoldings(File file, String date) {
+    Portfolio pf = getCheckpoints(file).holdingsAt(PriceSeries.toEpochDay(date));
+    pf.setDate(date);
+    return pf;
+  }
+
+  /**
+   * returns the cost basis of a portfolio at the date, i.e. the total paid for every transaction
+   * on or before the date.
+   *
+   * @param file portfolio file.
+   * @param date date in yyyy-MM-dd format.
+   * @return cost basis at the date.
+   */
+  double costBasisAt(File file, String date) {
+    return withEntry(file,
+            entry -> entry.costBasis.costBasisAt(PriceSeries.toEpochDay(date)));
+  }
+
+  /**
+   * returns the lots of shares of a portfolio still held at the date.
+   *
+   * @param file   portfolio file.
+   * @param date   date in yyyy-MM-dd format.
+   * @param method how the shares sold are matched against the shares bought.
+   * @return open lots in the order the stocks were first bought.
+   */
+  List<CostBasisLedger.Lot> openLots(File file, String date, CostBasisLedger.LotMethod method) {
+    return withEntry(file,
+            entry -> entry.costBasis.openLots(PriceSeries.toEpochDay(date), method));
+  }
+
+  /**
+   * returns a result computed from a portfolio, e.g. its value at a date, computing it only if
+   * it was not computed since the last trade of the portfolio. The computation runs without
+   * holding the lock of the repository; its result is not remembered if the portfolio changed
+   * meanwhile.
+   *
+   * @param file    portfolio file.
+   * @param key     name of the result including its date, e.g. "value 2022-11-14".
+   * @param compute computes the result from the current state of the portfolio.
+   * @return remembered or computed result.
+   */
+  double memoize(File file, String key, DoubleSupplier compute) {
+    Entry entry = getEntry(file);
+    long version;
+    synchronized (this) {
+      Double result = entry.results.get(key);
+      if (result != null) {
+        return result;
+      }
+      version = entry.version;
+    }
+
+    double result = compute.getAsDouble();
+    synchronized (this) {
+      if (entries.get(file.getAbsoluteFile()) == entry && entry.version == version) {
+        entry.results.put(key, result);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * returns the holdings checkpoints of a portfolio. They are built when the portfolio is loaded
+   * and extended by every trade instead of being built again. Checkpoints are never changed once
+   * returned, so they can be used without holding the lock of the repository, e.g. while prices
+   * are loaded.
+   *
+   * @param file portfolio file.
+   * @return checkpoints of every trade of the portfolio, including those not written yet.
+   */
+  HoldingsCheckpoints getCheckpoints(File file) {
+    return withEntry(file, entry -> entry.checkpoints);
+  }
+
+  /**
+   * validates the stocks bought or sold in a portfolio object and records them in a non empty
+   * portfolio file. The trade is visible to every query right away and written to the file
+   * later. If writing earlier trades in the background failed, it is retried first and the
+   * failure is thrown if it happens again.
+   *
+   * @param file      portfolio file to be written.
+   * @param portfolio portfolio object whose data is to be written.
+   */
+  void write(File file, Portfolio portfolio) {
+    rethrowFlushFailure();
+    long ticket = withEntry(file, entry -> {
+      long seq = apply(entry, portfolio);
+      if (flushDelay > 0 && !flushScheduled) {
+        flushScheduled = true;
+        writer.schedule(this::flushQuietly, flushDelay, TimeUnit.MILLISECONDS);
+      }
+      return seq;
+    });
+    if (flushDelay == 0) {
+      commit(ticket);
+    }
+  }
+
+  /**
+   * validates a trade against the ledger of a portfolio and records it in memory as pending.
+   * The caller holds the lock of the repository.
+   *
+   * @return sequence number of the trade.
+   */
+  private long apply(Entry entry, Portfolio portfolio) {
+    List<Transaction> transactions;
+    try {
+      transactions = entry.parser.toTransactions(portfolio, entry.ledger);
+    } catch (RuntimeException e) {
+      entry.ledger = PositionLedger.build(entry.history);
+      throw e;
+    }
+
+    for (Transaction transaction : transactions) {
+      entry.history.add(transaction);
+      entry.costBasis.add(transaction);
+    }
+    entry.checkpoints = entry.checkpoints.add(transactions);
+    entry.version++;
+    entry.results.clear();
+    entry.pending.addAll(transactions);
+    return ++writeSeq;
+  }
+
+  /**
+   * writes every pending trade to the portfolio files.
+   */
+  void flush() {
+    long ticket;
+    synchronized (this) {
+      ticket = writeSeq;
+    }
+    commit(ticket);
+  }
+
+  /**
+   * makes sure that the trade with the given sequence number and every trade before it is
+   * written. If another caller is writing already, this waits for it and then returns if that
+   * write covered the trade; otherwise it writes everything pending by then in one go.
+   *
+   * @param ticket sequence number of the trade.
+   */
+  private void commit(long ticket) {
+    synchronized (commitLock) {
+      long target;
+      List<Map.Entry<File, Entry>> batch = new ArrayList<>();
+      synchronized (this) {
+        if (durableSeq >= ticket) {
+          return;
+        }
+        flushScheduled = false;
+        target = writeSeq;
+        for (Map.Entry<File, Entry> mapEntry : entries.entrySet()) {
+          Entry entry = mapEntry.getValue();
+          if (!entry.pending.isEmpty()) {
+            entry.flushing.addAll(entry.pending);
+            entry.pending.clear();
+            batch.add(mapEntry);
+          }
+        }
+      }
+
+      int written = 0;
+      RuntimeException failure = null;
+      for (Map.Entry<File, Entry> mapEntry : batch) {
+        try {
+          mapEntry.getValue().parser.append(mapEntry.getKey(), mapEntry.getValue().flushing);
+          written++;
+        } catch (RuntimeException e) {
+          failure = e;
+          break;
+        }
+      }
+
+      synchronized (this) {
+        for (int i = 0; i < batch.size(); i++) {
+          Entry entry = batch.get(i).getValue();
+          if (i < written) {
+            entry.stamp = FileStamp.of(batch.get(i).getKey());
+          } else {
+            entry.pending.addAll(0, entry.flushing);
+          }
+          entry.flushing.clear();
+        }
+        if (failure != null) {
+          throw failure;
+        }
+        durableSeq = target;
+        flushFailure = null;
+      }
+    }
+  }
+
+  private void flushQuietly() {
+    try {
+      flush();
+    } catch (RuntimeException e) {
+      flushFailure = e;
+    }
+  }
+
+  /**
+   * retries a background flush that failed, so that the failure reaches a caller if it persists.
+   */
+  private void rethrowFlushFailure() {
+    if (flushFailure != null) {
+      flush();
+    }
+  }
+
+  /**
+   * writes the pending trades of a portfolio file and forgets about it, so that it can be
+   * written by other code and is read again on its next use.
+   *
+   * @param file portfolio file.
+   */
+  void release(File file) {
+    flush();
+    synchronized (this) {
+      entries.remove(file.getAbsoluteFile());
+    }
+  }
+
+  /**
+   * runs an action on the current entry of a portfolio while holding the lock of the
+   * repository, loading the entry first without holding it if needed.
+   */
+  private <T> T withEntry(File file, Function<Entry, T> action) {
+    File key = file.getAbsoluteFile();
+    while (true) {
+      Entry entry = getEntry(file);
+      synchronized (this) {
+        if (entries.get(key) == entry) {
+          return action.apply(entry);
+        }
+      }
+    }
+  }
+
+  /**
+   * returns the entry of a portfolio, reading the file again if it was changed by other code.
+   * The file is read without holding the lock of the repository and only one caller reads a
+   * given file at a time; the others wait for its result. A loaded entry replaces the one it was
+   * loaded over only if that one was not traded on meanwhile, else the load is retried.
+   */
+  private Entry getEntry(File file) {
+    File key = file.getAbsoluteFile();
+    while (true) {
+      FileStamp stamp = FileStamp.of(file);
+      Entry current;
+      long version;
+      CompletableFuture<Entry> future;
+      boolean loader;
+      synchronized (this) {
+        current = entries.get(key);
+        if (current != null && (isBusy(current) || current.stamp.equals(stamp))) {
+          return current;
+        }
+        version = current == null ? 0 : current.version;
+        future = loading.get(key);
+        loader = future == null;
+        if (loader) {
+          future = new CompletableFuture<>();
+          loading.put(key, future);
+        }
+      }
+
+      if (!loader) {
+        try {
+          future.join();
+        } catch (CompletionException e) {
+          if (e.getCause() instanceof RuntimeException) {
+            throw (RuntimeException) e.getCause();
+          }
+          if (e.getCause() instanceof Error) {
+            throw (Error) e.getCause();
+          }
+          throw e;
+        }
+        continue;
+      }
+
+      Entry loaded;
+      try {
+        loaded = load(file, stamp);
+      } catch (Throwable e) {
+        synchronized (this) {
+          loading.remove(key);
+        }
+        future.completeExceptionally(e);
+        throw e;
+      }
+
+      synchronized (this) {
+        loading.remove(key);
+        Entry now = entries.get(key);
+        boolean installed = now == current
+                && (now == null || (now.version == version && !isBusy(now)));
+        if (installed) {
+          entries.put(key, loaded);
+          evict();
+        }
+        future.complete(loaded);
+        if (installed) {
+          return loaded;
+        }
+      }
+    }
+  }
+
+  private Entry load(File file, FileStamp stamp) {
+    Entry entry = new Entry(getParser(file.getName()));
+    entry.stamp = stamp;
+    entry.history = entry.parser.readHistory(file);
+    entry.ledger = PositionLedger.build(entry.history);
+    entry.costBasis = CostBasisLedger.build(entry.history);
+    entry.checkpoints = HoldingsCheckpoints.build(entry.history);
+    return entry;
+  }
+
+  private static boolean isBusy(Entry entry) {
+    return !entry.pending.isEmpty() || !entry.flushing.isEmpty();
+  }
+
+  /**
+   * drops the least recently used portfolios until at most maxEntries are kept. Portfolios with
+   * trades not written yet are kept.
+   */
+  private void evict() {
+    Iterator<Entry> it = entries.values().iterator();
+    while (entries.size() > maxEntries && it.hasNext()) {
+      if (!isBusy(it.next())) {
+        it.remove();
+      }
+    }
+  }
+
+  /**
+   * the resident state of one portfolio file.
+   */
+  private static class Entry {
+
+    private final AbstractPortfolioReadWrite parser;
+    private final List<Transaction> pending;
+    private final List<Transaction> flushing;
+    private final Map<String, Double> results;
+    private PortfolioHistory history;
+    private PositionLedger ledger;
+    private CostBasisLedger costBasis;
+    private HoldingsCheckpoints checkpoints;
+    private FileStamp stamp;
+    private long version;
+
+    Entry(AbstractPortfolioReadWrite parser) {
+      this.parser = parser;
+      this.pending = new ArrayList<>();
+      this.flushing = new ArrayList<>();
+      this.results = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Double> eldest) {
+          return size() > MAX_RESULTS;
+        }
+      };
+    }
+  }
+}
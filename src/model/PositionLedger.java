@@ -0,0 +1,156 @@
+package model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A class which keeps, for every stock of a flexible portfolio, the days of its buys and sells in
+ * ascending order along with the running number of shares bought and sold up to each of them.
+ * This lets a sell be validated with binary searches instead of going through every transaction.
+ * As before, running quantities are counted in whole shares.
+ * This class is package private that is accessible to only classes present in model package.
+ */
+class PositionLedger {
+
+  private final Map<String, Entries> buys;
+  private final Map<String, Entries> sells;
+  private int firstBuyDay;
+
+  /**
+   * default constructor to create an empty ledger.
+   */
+  PositionLedger() {
+    this.buys = new HashMap<>();
+    this.sells = new HashMap<>();
+    this.firstBuyDay = Integer.MAX_VALUE;
+  }
+
+  /**
+   * builds the ledger of a portfolio from its transactions.
+   *
+   * @param history every transaction of the portfolio.
+   * @return ledger of the portfolio.
+   */
+  static PositionLedger build(PortfolioHistory history) {
+    PositionLedger ledger = new PositionLedger();
+    for (Transaction transaction : history.getBuys()) {
+      ledger.add(transaction);
+    }
+    for (Transaction transaction : history.getSells()) {
+      ledger.add(transaction);
+    }
+    return ledger;
+  }
+
+  /**
+   * records a transaction in the ledger.
+   *
+   * @param transaction buy or sell to be recorded.
+   */
+  void add(Transaction transaction) {
+    Map<String, Entries> side = transaction.getOperation() == 's' ? sells : buys;
+    side.computeIfAbsent(transaction.getSymbol(), k -> new Entries())
+            .add(transaction.getDay(), transaction.getQuantity());
+    if (transaction.getOperation() != 's') {
+      firstBuyDay = Math.min(firstBuyDay, transaction.getDay());
+    }
+  }
+
+  /**
+   * tells whether the stock was bought in the portfolio and the day is not before the first buy
+   * of the portfolio.
+   *
+   * @param symbol   ticker symbol.
+   * @param epochDay day as an epoch day.
+   * @return true if a sell of the stock may be dated on the day.
+   */
+  boolean isDateValid(String symbol, int epochDay) {
+    return buys.containsKey(symbol) && epochDay >= firstBuyDay;
+  }
+
+  /**
+   * tells whether the day is not before the last sell of the stock.
+   *
+   * @param symbol   ticker symbol.
+   * @param epochDay day as an epoch day.
+   * @return true if a sell of the stock may be dated on the day.
+   */
+  boolean isDatePrecedence(String symbol, int epochDay) {
+    Entries entries = sells.get(symbol);
+    return entries == null || epochDay >= entries.lastDay();
+  }
+
+  /**
+   * returns the number of shares of the stock held at the end of the day.
+   *
+   * @param symbol   ticker symbol.
+   * @param epochDay day as an epoch day.
+   * @return shares bought minus shares sold on or before the day.
+   */
+  int getQuantity(String symbol, int epochDay) {
+    return totalAsOf(buys.get(symbol), epochDay) - totalAsOf(sells.get(symbol), epochDay);
+  }
+
+  private static int totalAsOf(Entries entries, int epochDay) {
+    return entries == null ? 0 : entries.totalAsOf(epochDay);
+  }
+
+  /**
+   * days and running totals of the buys or the sells of one stock.
+   */
+  private static class Entries {
+
+    private int[] days = new int[4];
+    private double[] quantities = new double[4];
+    private int[] totals = new int[4];
+    private int size;
+
+    void add(int day, double quantity) {
+      if (size == days.length) {
+        days = Arrays.copyOf(days, size * 2);
+        quantities = Arrays.copyOf(quantities, size * 2);
+        totals = Arrays.copyOf(totals, size * 2);
+      }
+
+      int index = upperBound(day);
+      System.arraycopy(days, index, days, index + 1, size - index);
+      System.arraycopy(quantities, index, quantities, index + 1, size - index);
+      days[index] = day;
+      quantities[index] = quantity;
+      size++;
+
+      int total = index == 0 ? 0 : totals[index - 1];
+      for (int i = index; i < size; i++) {
+        total += quantities[i];
+        totals[i] = total;
+      }
+    }
+
+    int lastDay() {
+      return days[size - 1];
+    }
+
+    int totalAsOf(int day) {
+      int index = upperBound(day);
+      return index == 0 ? 0 : totals[index - 1];
+    }
+
+    /**
+     * returns the index of the first entry after the day.
+     */
+    private int upperBound(int day) {
+      int low = 0;
+      int high = size;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (days[mid] <= day) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+  }
+}
@@ -0,0 +1,149 @@
+package model;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Properties;
+
+/**
+ * A class which persists price series on disk so that they survive a restart of the application.
+ * Every series is stored in its own binary file under the directory configured by the
+ * "price_cache_dir" property. A file holds a magic number, the row count, the epoch days and the
+ * open, high, low, close and volume columns, in that order. The columns are copied out of the file
+ * in bulk, which is memory mapped if it is large.
+ * This class is package private that is accessible to only classes present in model package.
+ */
+class PriceDiskCache {
+
+  private static final int MAGIC = 0x50525331;
+
+  private final File directory;
+
+  /**
+   * parameterized constructor to create a disk cache rooted at the configured directory.
+   *
+   * @param properties config properties to retrieve the cache directory.
+   */
+  PriceDiskCache(Properties properties) {
+    this.directory = new File(properties.getProperty("price_cache_dir", "price_cache"));
+  }
+
+  /**
+   * reads a series previously stored for the given key.
+   *
+   * @param key name of the series, i.e. the symbol and the api function.
+   * @return stored series or null if nothing usable is stored.
+   */
+  PriceSeries load(String key) {
+    File file = getFile(key);
+    if (!file.isFile()) {
+      return null;
+    }
+
+    try {
+      ByteBuffer in = MappedFiles.read(file);
+      if (in.getInt() != MAGIC) {
+        return null;
+      }
+      int size = in.getInt();
+      int[] days = new int[size];
+      in.asIntBuffer().get(days);
+      in.position(in.position() + size * Integer.BYTES);
+      double[][] columns = new double[5][size];
+      for (double[] column : columns) {
+        in.asDoubleBuffer().get(column);
+        in.position(in.position() + size * Double.BYTES);
+      }
+      return new PriceSeries(days, columns[0], columns[1], columns[2], columns[3], columns[4]);
+    } catch (IOException | BufferUnderflowException | IllegalArgumentException
+             | NegativeArraySizeException e) {
+      return null;
+    }
+  }
+
+  /**
+   * writes a series for the given key, replacing whatever was stored before.
+   * Failures are ignored as the disk cache is only an optimization.
+   *
+   * @param key    name of the series, i.e. the symbol and the api function.
+   * @param series series to be stored.
+   */
+  void store(String key, PriceSeries series) {
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      return;
+    }
+
+    File file = getFile(key);
+    File temp = new File(directory, file.getName() + ".tmp");
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+            new FileOutputStream(temp)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(series.size());
+      for (int i = 0; i < series.size(); i++) {
+        out.writeInt(series.getDay(i));
+      }
+      for (int i = 0; i < series.size(); i++) {
+        out.writeDouble(series.getOpen(i));
+      }
+      for (int i = 0; i < series.size(); i++) {
+        out.writeDouble(series.getHigh(i));
+      }
+      for (int i = 0; i < series.size(); i++) {
+        out.writeDouble(series.getLow(i));
+      }
+      for (int i = 0; i < series.size(); i++) {
+        out.writeDouble(series.getClose(i));
+      }
+      for (int i = 0; i < series.size(); i++) {
+        out.writeDouble(series.getVolume(i));
+      }
+    } catch (IOException e) {
+      temp.delete();
+      return;
+    }
+
+    try {
+      Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      temp.delete();
+    }
+  }
+
+  /**
+   * checks whether a stored series is recent enough to be used without asking the api.
+   * A series is fresh if it already has the last completed weekday or if it was refreshed today.
+   *
+   * @param key    name of the series, i.e. the symbol and the api function.
+   * @param series series that was loaded for the key.
+   * @return true if the series does not need its tail refreshed.
+   */
+  boolean isFresh(String key, PriceSeries series) {
+    LocalDate today = LocalDate.now();
+    LocalDate modified = Instant.ofEpochMilli(getFile(key).lastModified())
+            .atZone(ZoneId.systemDefault()).toLocalDate();
+    if (modified.equals(today)) {
+      return true;
+    }
+
+    LocalDate expected = today.minusDays(1);
+    while (expected.getDayOfWeek() == DayOfWeek.SATURDAY
+            || expected.getDayOfWeek() == DayOfWeek.SUNDAY) {
+      expected = expected.minusDays(1);
+    }
+    return series.size() > 0 && series.getDay(series.size() - 1) >= expected.toEpochDay();
+  }
+
+  private File getFile(String key) {
+    return new File(directory, key + ".bin");
+  }
+}
@@ -0,0 +1,26 @@
+package model;
+
+/**
+ * This interface represents a source of historical daily stock prices. Monthly figures are
+ * derived from the daily series by PriceSeries. Implementations may call a
+ * remote api or read local files; StockPrice picks one based on the "price_provider" property.
+ * It is also package private that is accessible to only classes present in model package.
+ */
+interface PriceProvider {
+
+  /**
+   * fetches the daily price series of a stock.
+   *
+   * @param symbol   ticker symbol.
+   * @param tailOnly true if only the most recent rows are needed to refresh a stored series.
+   * @return daily price series of the stock.
+   */
+  PriceSeries fetchDaily(String symbol, boolean tailOnly);
+
+  /**
+   * tells whether fetching from this provider is expensive enough to be worth caching on disk.
+   *
+   * @return true if the prices come over the network.
+   */
+  boolean isRemote();
+}
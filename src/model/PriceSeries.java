@@ -0,0 +1,363 @@
+package model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A class which holds the price history of a single stock in columnar form.
+ * Every trading day is stored as an epoch day (days since 1970-01-01) in ascending order along
+ * with its open, high, low, close and volume values in parallel primitive arrays.
+ * This class is package private that is accessible to only classes present in model package.
+ */
+class PriceSeries {
+
+  private final int[] days;
+  private final double[] open;
+  private final double[] high;
+  private final double[] low;
+  private final double[] close;
+  private final double[] volume;
+  private final int[] monthKeys;
+  private final int[] monthEndRows;
+
+  /**
+   * parameterized constructor to create a series from parallel arrays sorted by ascending day.
+   *
+   * @param days   trading days as epoch days in ascending order.
+   * @param open   opening price of each trading day.
+   * @param high   highest price of each trading day.
+   * @param low    lowest price of each trading day.
+   * @param close  closing price of each trading day.
+   * @param volume traded volume of each trading day.
+   */
+  PriceSeries(int[] days, double[] open, double[] high, double[] low, double[] close,
+              double[] volume) {
+    this.days = days;
+    this.open = open;
+    this.high = high;
+    this.low = low;
+    this.close = close;
+    this.volume = volume;
+
+    int months = 0;
+    int[] keys = new int[days.length];
+    int[] rows = new int[days.length];
+    for (int i = 0; i < days.length; i++) {
+      int key = monthKey(days[i]);
+      if (months > 0 && keys[months - 1] == key) {
+        rows[months - 1] = i;
+      } else {
+        keys[months] = key;
+        rows[months] = i;
+        months++;
+      }
+    }
+    this.monthKeys = Arrays.copyOf(keys, months);
+    this.monthEndRows = Arrays.copyOf(rows, months);
+  }
+
+  /**
+   * builds a series from csv data in the format returned by the api, that is a header line
+   * followed by "timestamp,open,high,low,close,volume" rows with the newest row first.
+   *
+   * @param br reader positioned at the header line.
+   * @return series holding every row of the data.
+   * @throws IOException when the data cannot be read.
+   */
+  static PriceSeries fromCsv(BufferedReader br) throws IOException {
+    br.readLine();
+
+    int capacity = 256;
+    int size = 0;
+    int[] days = new int[capacity];
+    double[][] values = new double[5][capacity];
+    String line;
+
+    while ((line = br.readLine()) != null) {
+      if (line.isEmpty()) {
+        continue;
+      }
+      String[] cols = line.split(",");
+      if (cols.length < 6) {
+        throw new IllegalArgumentException("Invalid price data row: " + line);
+      }
+      if (size == capacity) {
+        capacity *= 2;
+        days = Arrays.copyOf(days, capacity);
+        for (int j = 0; j < values.length; j++) {
+          values[j] = Arrays.copyOf(values[j], capacity);
+        }
+      }
+      days[size] = toEpochDay(cols[0]);
+      for (int j = 0; j < values.length; j++) {
+        values[j][size] = Double.parseDouble(cols[j + 1]);
+      }
+      size++;
+    }
+
+    return fromRows(days, values, size);
+  }
+
+  private static PriceSeries fromRows(int[] days, double[][] values, int size) {
+    int[] sortedDays = Arrays.copyOf(days, size);
+    double[][] sorted = new double[values.length][];
+    for (int j = 0; j < values.length; j++) {
+      sorted[j] = Arrays.copyOf(values[j], size);
+    }
+
+    if (size > 1 && sortedDays[0] > sortedDays[size - 1]) {
+      reverse(sortedDays, sorted);
+    }
+
+    return new PriceSeries(sortedDays, sorted[0], sorted[1], sorted[2], sorted[3], sorted[4]);
+  }
+
+  private static void reverse(int[] days, double[][] values) {
+    for (int i = 0, k = days.length - 1; i < k; i++, k--) {
+      int d = days[i];
+      days[i] = days[k];
+      days[k] = d;
+      for (double[] column : values) {
+        double v = column[i];
+        column[i] = column[k];
+        column[k] = v;
+      }
+    }
+  }
+
+  /**
+   * tells whether the given series can be appended to this series without leaving a gap, i.e.
+   * whether its first row is not newer than the last row of this series.
+   *
+   * @param newer series holding the most recent rows.
+   * @return true if the series overlap, or either is empty.
+   */
+  boolean overlaps(PriceSeries newer) {
+    return size() == 0 || newer.size() == 0 || newer.getDay(0) <= getDay(size() - 1);
+  }
+
+  /**
+   * returns a new series made of the rows of this series that are older than the first row of
+   * the given series followed by every row of the given series.
+   *
+   * @param newer series holding the most recent rows.
+   * @return merged series.
+   * @throws IllegalArgumentException when the given series starts after the last row of this
+   *                                  series, as the days in between would be missing.
+   */
+  PriceSeries append(PriceSeries newer) {
+    if (newer.size() == 0) {
+      return this;
+    }
+    if (!overlaps(newer)) {
+      throw new IllegalArgumentException("Price data does not overlap the stored prices.");
+    }
+
+    int keep = indexAsOf(newer.getDay(0) - 1) + 1;
+    int size = keep + newer.size();
+    int[] mergedDays = Arrays.copyOf(days, size);
+    System.arraycopy(newer.days, 0, mergedDays, keep, newer.size());
+
+    return new PriceSeries(mergedDays, concat(open, newer.open, keep, size),
+            concat(high, newer.high, keep, size), concat(low, newer.low, keep, size),
+            concat(close, newer.close, keep, size), concat(volume, newer.volume, keep, size));
+  }
+
+  private static double[] concat(double[] older, double[] newer, int keep, int size) {
+    double[] merged = Arrays.copyOf(older, size);
+    System.arraycopy(newer, 0, merged, keep, newer.length);
+    return merged;
+  }
+
+  /**
+   * returns the number of trading days held in this series.
+   *
+   * @return number of rows.
+   */
+  int size() {
+    return days.length;
+  }
+
+  /**
+   * returns the approximate number of bytes this series occupies on the heap.
+   *
+   * @return size in bytes.
+   */
+  long getSizeInBytes() {
+    return 64L + 6 * 16L + days.length * (Integer.BYTES + 5L * Double.BYTES);
+  }
+
+  int getDay(int index) {
+    return days[index];
+  }
+
+  double getOpen(int index) {
+    return open[index];
+  }
+
+  double getHigh(int index) {
+    return high[index];
+  }
+
+  double getLow(int index) {
+    return low[index];
+  }
+
+  double getClose(int index) {
+    return close[index];
+  }
+
+  double getVolume(int index) {
+    return volume[index];
+  }
+
+  /**
+   * finds the row of the given day or, if the day is not a trading day, of the most recent
+   * trading day before it. The lookup is a binary search over the sorted days.
+   *
+   * @param epochDay day to look up as an epoch day.
+   * @return index of the row or -1 if the series has no row on or before the day.
+   */
+  int indexAsOf(int epochDay) {
+    int index = Arrays.binarySearch(days, epochDay);
+    if (index >= 0) {
+      return index;
+    }
+    return -index - 2;
+  }
+
+  /**
+   * returns a view of the rows needed to price any day between the two days, that is from the row
+   * of the start day (or the trading day before it) up to the last row on or before the end day.
+   *
+   * @param fromDay start of the range as an epoch day.
+   * @param toDay   end of the range as an epoch day.
+   * @return view over the range, sharing the arrays of this series.
+   */
+  PriceSlice slice(int fromDay, int toDay) {
+    int start = Math.max(0, indexAsOf(fromDay));
+    return new PriceSlice(this, start, indexAsOf(toDay) + 1);
+  }
+
+  /**
+   * returns the closing price of the given day or of the most recent trading day before it.
+   *
+   * @param epochDay day to look up as an epoch day.
+   * @return closing price or -1.0 if the series has no row on or before the day.
+   */
+  double closeAsOf(int epochDay) {
+    int index = indexAsOf(epochDay);
+    if (index < 0) {
+      return -1.0;
+    }
+    return close[index];
+  }
+
+  /**
+   * finds the row of the last trading day in the month of the given day. For the current month
+   * this is the most recent trading day so far. The month boundaries are computed once when the
+   * series is built, so the lookup is a binary search over the months.
+   *
+   * @param epochDay any day of the month as an epoch day.
+   * @return index of the row or -1 if the series has no row in that month.
+   */
+  int monthEndIndex(int epochDay) {
+    int index = Arrays.binarySearch(monthKeys, monthKey(epochDay));
+    if (index < 0) {
+      return -1;
+    }
+    return monthEndRows[index];
+  }
+
+  /**
+   * returns a key which is equal for all days of the same month and increases month by month.
+   *
+   * @param epochDay day as an epoch day.
+   * @return year * 12 + zero based month of the day.
+   */
+  static int monthKey(int epochDay) {
+    // Civil from days algorithm, the inverse of epochDay(year, month, day).
+    int z = epochDay + 719468;
+    int era = Math.floorDiv(z, 146097);
+    int doe = z - era * 146097;
+    int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+    int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+    int mp = (5 * doy + 2) / 153;
+    int month = mp < 10 ? mp + 3 : mp - 9;
+    int year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+    return year * 12 + month - 1;
+  }
+
+  /**
+   * converts a date in yyyy-MM-dd format to an epoch day without creating any objects for the
+   * common well formed case.
+   *
+   * @param date date in yyyy-MM-dd format.
+   * @return number of days since 1970-01-01.
+   */
+  static int toEpochDay(String date) {
+    if (date.length() == 10 && date.charAt(4) == '-' && date.charAt(7) == '-') {
+      int year = digits(date, 0, 4);
+      int month = digits(date, 5, 7);
+      int day = digits(date, 8, 10);
+      if (year >= 0 && month >= 1 && month <= 12 && day >= 1 && day <= 31) {
+        return epochDay(year, month, day);
+      }
+    }
+
+    try {
+      long millis = new SimpleDateFormat("yyyy-MM-dd").parse(date).getTime();
+      return (int) Math.floorDiv(millis + TimeZone.getDefault().getOffset(millis),
+              TimeUnit.DAYS.toMillis(1));
+    } catch (ParseException e) {
+      throw new IllegalArgumentException("Date cannot be parsed: " + date);
+    }
+  }
+
+  /**
+   * converts an epoch day back to a date in yyyy-MM-dd format.
+   *
+   * @param epochDay number of days since 1970-01-01.
+   * @return date in yyyy-MM-dd format.
+   */
+  static String toDateString(int epochDay) {
+    return LocalDate.ofEpochDay(epochDay).toString();
+  }
+
+  private static int digits(String s, int from, int to) {
+    int value = 0;
+    for (int i = from; i < to; i++) {
+      char c = s.charAt(i);
+      if (c < '0' || c > '9') {
+        return -1;
+      }
+      value = value * 10 + (c - '0');
+    }
+    return value;
+  }
+
+  /**
+   * converts a calendar date to an epoch day.
+   *
+   * @param year  year of the date.
+   * @param month month of the date, 1 to 12.
+   * @param day   day of the month.
+   * @return number of days since 1970-01-01.
+   */
+  static int epochDay(int year, int month, int day) {
+    // Days from civil algorithm, valid for the proleptic Gregorian calendar.
+    int y = month <= 2 ? year - 1 : year;
+    int era = Math.floorDiv(y, 400);
+    int yoe = y - era * 400;
+    int mp = (month + 9) % 12;
+    int doy = (153 * mp + 2) / 5 + day - 1;
+    int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+    return era * 146097 + doe - 719468;
+  }
+}
@@ -0,0 +1,72 @@
+package model;
+
+/**
+ * A read only view over a range of rows of a PriceSeries. No price data is copied; the slice only
+ * remembers the series and the bounds of the range.
+ * This class is package private that is accessible to only classes present in model package.
+ */
+class PriceSlice {
+
+  private final PriceSeries series;
+  private final int start;
+  private final int end;
+
+  /**
+   * parameterized constructor to create a view over the rows start (inclusive) to end
+   * (exclusive) of the series.
+   *
+   * @param series series to be viewed.
+   * @param start  index of the first row of the view.
+   * @param end    index after the last row of the view.
+   */
+  PriceSlice(PriceSeries series, int start, int end) {
+    this.series = series;
+    this.start = start;
+    this.end = Math.max(start, end);
+  }
+
+  /**
+   * returns the number of trading days in this slice.
+   *
+   * @return number of rows.
+   */
+  int size() {
+    return end - start;
+  }
+
+  int getDay(int index) {
+    return series.getDay(start + index);
+  }
+
+  double getClose(int index) {
+    return series.getClose(start + index);
+  }
+
+  /**
+   * finds the row of the given day or of the most recent trading day before it within this slice.
+   *
+   * @param epochDay day to look up as an epoch day.
+   * @return index within the slice or -1 if the slice has no row on or before the day.
+   */
+  int indexAsOf(int epochDay) {
+    int index = series.indexAsOf(epochDay);
+    if (index < start) {
+      return -1;
+    }
+    return Math.min(index, end - 1) - start;
+  }
+
+  /**
+   * returns the closing price of the given day or of the most recent trading day before it.
+   *
+   * @param epochDay day to look up as an epoch day.
+   * @return closing price or -1.0 if the slice has no row on or before the day.
+   */
+  double closeAsOf(int epochDay) {
+    int index = indexAsOf(epochDay);
+    if (index < 0) {
+      return -1.0;
+    }
+    return getClose(index);
+  }
+}
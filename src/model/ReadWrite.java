@@ -3,7 +3,6 @@ package model;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -35,13 +34,10 @@ class ReadWrite implements ReadWriteInterface<Portfolio> {
    * @param portfolio portfolio object whose date is to be written.
    */
   public void writeToFile(File file, Portfolio portfolio) {
+    String content = portfolio.getSymbol().toString() + System.lineSeparator()
+            + portfolio.getQuantity().toString();
     try {
-      FileWriter myWriter = new FileWriter(file);
-      myWriter.write(portfolio.getSymbol().toString());
-      myWriter.write(System.lineSeparator());
-      myWriter.write(portfolio.getQuantity().toString());
-
-      myWriter.close();
+      AtomicFiles.write(file, out -> out.write(content.getBytes()));
     } catch (IOException e) {
       throw new RuntimeException("An error occurred while writing to a file.");
     }
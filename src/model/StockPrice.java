@@ -1,17 +1,8 @@
 package model;
 
 import java.io.BufferedReader;
+import java.io.FileReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.List;
 import java.util.Properties;
 
 /**
@@ -21,8 +12,34 @@ import java.util.Properties;
  */
 class StockPrice implements BaseStockPriceInterface {
 
-  private final Cache namedCache = new Cache();
-  private String line;
+  /**
+   * milliseconds for which a failure to load the trading calendar is thrown again without
+   * retrying.
+   */
+  static final long CALENDAR_RETRY_MS = 60 * 1000;
+
+  private final Cache namedCache;
+  private PriceProvider provider;
+  private String calendarSymbol;
+  private TradingCalendar calendar;
+  private PriceSeries calendarSeries;
+  private RuntimeException calendarFailure;
+  private long calendarFailedAt;
+
+  /**
+   * parameterized constructor that creates the price cache bounded as per the
+   * "price_cache_max_symbols" and "price_cache_max_bytes" properties. Missing properties leave
+   * the respective bound unlimited.
+   *
+   * @param properties config properties to retrieve the cache bounds.
+   */
+  StockPrice(Properties properties) {
+    int maxSymbols = Integer.parseInt(properties.getProperty("price_cache_max_symbols",
+            String.valueOf(Integer.MAX_VALUE)));
+    long maxBytes = Long.parseLong(properties.getProperty("price_cache_max_bytes",
+            String.valueOf(Long.MAX_VALUE)));
+    this.namedCache = new Cache(maxSymbols, maxBytes);
+  }
 
   /**
    * retrieves the stock price for the current date by calling API for daily pricing of stock.
@@ -34,43 +51,48 @@ class StockPrice implements BaseStockPriceInterface {
    */
   public Double getStockPriceByApi(String symbol, String currDate, Properties properties) {
     try {
-      line = "";
-      Calendar cal = Calendar.getInstance();
-      SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-      cal.setTime(sdf.parse(currDate));
-
-      if (!namedCache.containsKey(symbol)) {
-        String apiKey = properties.getProperty("api_key");
-        URL url = null;
-        try {
-          url = new URL("https://www.alphavantage"
-                  + ".co/query?function=TIME_SERIES_DAILY"
-                  + "&outputsize=full"
-                  + "&symbol"
-                  + "=" + symbol + "&apikey=" + apiKey + "&datatype=csv");
-        } catch (MalformedURLException e) {
-          throw new RuntimeException(" API has either changed or "
-                  + "no longer works");
-        }
-        InputStream in = null;
-        try {
-          in = url.openStream();
-          BufferedReader br = new BufferedReader(new InputStreamReader(in));
-          List<String> dataList = fillStringArray(br);
-          namedCache.put(symbol, dataList);
-        } catch (IOException e) {
-          throw new RuntimeException("No price data found for " + symbol);
-        }
-      }
+      int day = PriceSeries.toEpochDay(currDate);
 
-      return getStockPrice(symbol, currDate, properties);
+      return namedCache.getOrLoad(symbol, key -> loadSeries(key, properties))
+              .closeAsOf(day);
 
-    } catch (ParseException e) {
+    } catch (IllegalArgumentException e) {
       throw new RuntimeException("No price data found for " + symbol);
     }
 
   }
 
+  @Override
+  public double[] getStockPricesByApi(String[] symbols, String currDate, Properties properties) {
+    int day;
+    try {
+      day = PriceSeries.toEpochDay(currDate);
+    } catch (IllegalArgumentException e) {
+      throw new RuntimeException("No price data found for " + String.join(",", symbols));
+    }
+
+    double[] prices = new double[symbols.length];
+    for (int i = 0; i < symbols.length; i++) {
+      prices[i] = namedCache.getOrLoad(symbols[i], key -> loadSeries(key, properties))
+              .closeAsOf(day);
+    }
+    return prices;
+  }
+
+  @Override
+  public PriceSlice getPriceRange(String symbol, String startDate, String endDate,
+                                  Properties properties) {
+    try {
+      int fromDay = PriceSeries.toEpochDay(startDate);
+      int toDay = PriceSeries.toEpochDay(endDate);
+
+      return namedCache.getOrLoad(symbol, key -> loadSeries(key, properties))
+              .slice(fromDay, toDay);
+    } catch (IllegalArgumentException e) {
+      throw new RuntimeException("No price data found for " + symbol);
+    }
+  }
+
   /**
    * retrieves the stock price for a particular date by looking up the .csv file.
    *
@@ -82,35 +104,9 @@ class StockPrice implements BaseStockPriceInterface {
   public Double getStockPrice(String symbol, String inputDate, Properties properties) {
 
     try {
+      PriceSeries data = namedCache.get(symbol);
 
-      DateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-      StringBuilder price = new StringBuilder();
-
-      try {
-
-        List<String> data = namedCache.get(symbol);
-
-        int i = 0;
-        while ((line = data.get(i)) != null) {
-          if (inputDate.equals(line.split(",")[0])) {
-            price.append(line.split(",")[4]);
-            break;
-          } else if (sdf.parse(inputDate).after(sdf.parse(line.split(",")[0]))) {
-            price.append(line.split(",")[4]);
-            break;
-          }
-          i++;
-        }
-
-      } catch (Exception e) {
-        throw new RuntimeException("Error occurred while fetching stock price.");
-      }
-
-      if (price.toString().equals("")) {
-        return -1.0;
-      } else {
-        return Double.parseDouble(price.toString());
-      }
+      return data.closeAsOf(PriceSeries.toEpochDay(inputDate));
     } catch (Exception e) {
       throw new RuntimeException("No price data found for " + symbol);
     }
@@ -118,7 +114,9 @@ class StockPrice implements BaseStockPriceInterface {
 
 
   /**
-   * retrieves the stock price for the current date by calling API for monthly price of stock.
+   * retrieves the closing price of the month for a month end date. The price is looked up in
+   * the cached daily series, whose close on the last trading day of a month is the monthly
+   * close.
    *
    * @param symbol     ticker symbol.
    * @param currDate   current date.
@@ -126,52 +124,119 @@ class StockPrice implements BaseStockPriceInterface {
    * @return the current price in double format.
    */
   public Double getStockPriceByApiMonthly(String symbol, String currDate, Properties properties) {
-    line = "";
-
-    if (!namedCache.containsKey(symbol)) {
-      String apiKey = properties.getProperty("api_key");
-      URL url = null;
-      try {
-        url = new URL("https://www.alphavantage"
-                + ".co/query?function=TIME_SERIES_MONTHLY"
-                + "&outputsize=full"
-                + "&symbol"
-                + "=" + symbol + "&apikey=" + apiKey + "&datatype=csv");
-      } catch (MalformedURLException e) {
-        throw new RuntimeException(" API has either changed or "
-                + "no longer works");
+    return getStockPriceByApi(symbol, currDate, properties);
+  }
+
+  /**
+   * returns the trading calendar, rebuilding it whenever the cached series of the calendar symbol
+   * was loaded again since it was built. The series is loaded without holding the lock of this
+   * object. A failed load is remembered for CALENDAR_RETRY_MS, during which callers get the same
+   * failure right away instead of each waiting for another attempt.
+   */
+  @Override
+  public TradingCalendar getTradingCalendar(Properties properties) {
+    synchronized (this) {
+      if (calendarFailure != null
+              && System.nanoTime() - calendarFailedAt < CALENDAR_RETRY_MS * 1_000_000L) {
+        throw new RuntimeException(calendarFailure.getMessage());
       }
-      InputStream in = null;
-      try {
-        in = url.openStream();
-        BufferedReader br = new BufferedReader(new InputStreamReader(in));
+    }
 
-        List<String> dataList = fillStringArray(br);
+    PriceSeries series;
+    try {
+      series = namedCache.getOrLoad(getCalendarSymbol(properties),
+              key -> loadSeries(key, properties));
+    } catch (RuntimeException e) {
+      synchronized (this) {
+        calendarFailure = e;
+        calendarFailedAt = System.nanoTime();
+      }
+      throw e;
+    }
 
-        namedCache.put(symbol, dataList);
+    synchronized (this) {
+      calendarFailure = null;
+      if (calendar == null || calendarSeries != series) {
+        calendar = new TradingCalendar(series);
+        calendarSeries = series;
+      }
+      return calendar;
+    }
+  }
 
+  private synchronized String getCalendarSymbol(Properties properties) {
+    if (calendarSymbol == null) {
+      calendarSymbol = properties.getProperty("calendar_symbol");
+    }
+    if (calendarSymbol == null) {
+      try (BufferedReader br = new BufferedReader(new FileReader(
+              properties.getProperty("ticker_check")))) {
+        calendarSymbol = br.readLine();
       } catch (IOException e) {
-        throw new IllegalArgumentException("No price data found for " + symbol);
+        throw new RuntimeException("Could not read ticker symbols for the trading calendar.");
       }
     }
+    return calendarSymbol;
+  }
 
-    return getStockPrice(symbol, currDate, properties);
-
+  @Override
+  public CacheStats getCacheStats() {
+    return namedCache.getStats();
   }
 
-  private List<String> fillStringArray(BufferedReader br) throws IOException {
-    br.readLine();
-    List<String> dataList = new ArrayList<>();
+  /**
+   * loads a series from the disk cache, refreshing only its missing tail from the provider when
+   * it is stale, or fetches the full series when nothing is stored yet or the recent prices do
+   * not reach back to the stored ones. Series of local providers are not cached on disk.
+   */
+  private PriceSeries loadSeries(String symbol, Properties properties) {
+    PriceProvider provider = getProvider(properties);
+    if (!provider.isRemote()) {
+      return provider.fetchDaily(symbol, false);
+    }
+
+    PriceDiskCache diskCache = new PriceDiskCache(properties);
+    String key = symbol + "_TIME_SERIES_DAILY";
+    PriceSeries stored = diskCache.load(key);
 
-    while ((line = br.readLine()) != null) {
-      dataList.add(line);
+    if (stored != null && diskCache.isFresh(key, stored)) {
+      return stored;
     }
 
-    return dataList;
+    PriceSeries series = null;
+    if (stored != null && stored.size() > 0) {
+      PriceSeries recent = provider.fetchDaily(symbol, true);
+      if (stored.overlaps(recent)) {
+        series = stored.append(recent);
+      }
+    }
+    if (series == null) {
+      series = provider.fetchDaily(symbol, false);
+    }
+    diskCache.store(key, series);
+    return series;
   }
 
   /**
-   * gets the last working day of the month.
+   * returns the price provider selected by the "price_provider" property, creating it on first
+   * use. "alphavantage" is the default, "csv" reads local files.
+   */
+  private synchronized PriceProvider getProvider(Properties properties) {
+    if (provider == null) {
+      String type = properties.getProperty("price_provider", "alphavantage");
+      if (type.equals("csv")) {
+        provider = new CsvPriceProvider(properties);
+      } else if (type.equals("alphavantage")) {
+        provider = new AlphaVantagePriceProvider(properties);
+      } else {
+        throw new RuntimeException("Please check config properties for price provider value");
+      }
+    }
+    return provider;
+  }
+
+  /**
+   * gets the last working day of the month using the month boundaries of the cached daily series.
    *
    * @param symbol     ticker symbol.
    * @param currDate   current date.
@@ -179,35 +244,17 @@ class StockPrice implements BaseStockPriceInterface {
    * @return the date in string format.
    */
   public String getMonthEndDateByApi(String symbol, String currDate, Properties properties) {
-    line = "";
-    String apiKey = properties.getProperty("api_key");
-    URL url = null;
     try {
-      url = new URL("https://www.alphavantage"
-              + ".co/query?function=TIME_SERIES_MONTHLY"
-              + "&outputsize=full"
-              + "&symbol"
-              + "=" + symbol + "&apikey=" + apiKey + "&datatype=csv");
-    } catch (MalformedURLException e) {
-      throw new RuntimeException(" API has either changed or "
-              + "no longer works");
-    }
-    InputStream in = null;
-    try {
-      in = url.openStream();
-      BufferedReader br = new BufferedReader(new InputStreamReader(in));
-      br.readLine();
-      while ((line = br.readLine()) != null) {
-        if (currDate.substring(0, 8).equals(line.split(",")[0].substring(0, 8))) {
-          break;
-        }
-      }
+      int day = PriceSeries.toEpochDay(currDate);
+      PriceSeries daily = namedCache.getOrLoad(symbol, key -> loadSeries(key, properties));
+      int index = daily.monthEndIndex(day);
 
-      br.close();
-    } catch (IOException e) {
+      if (index < 0) {
+        throw new IllegalArgumentException("No price data found for " + symbol);
+      }
+      return PriceSeries.toDateString(daily.getDay(index));
+    } catch (IllegalArgumentException e) {
       throw new IllegalArgumentException("No price data found for " + symbol);
     }
-
-    return line.split(",")[0];
   }
 }
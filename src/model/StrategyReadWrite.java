@@ -5,7 +5,6 @@ import org.json.simple.parser.JSONParser;
 
 import java.io.File;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
@@ -45,9 +44,7 @@ class StrategyReadWrite implements ReadWriteInterface<Strategy> {
     jsonObject.put("Weight Map", weightMap);
 
     try {
-      FileWriter myWriter = new FileWriter(file);
-      myWriter.write(jsonObject.toJSONString());
-      myWriter.close();
+      AtomicFiles.write(file, out -> out.write(jsonObject.toJSONString().getBytes()));
     } catch (IOException e) {
       throw new RuntimeException("An error occurred while writing to a file.");
     }
@@ -0,0 +1,140 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * A class which knows which days the market was open, built once from the days observed in a
+ * daily price series. Besides the sorted trading days it keeps, for every calendar day between
+ * the first and the last trading day, the number of trading days up to and including that day.
+ * This turns "previous trading day", "month end" and "trading days between" into array lookups.
+ * Days after the last observed trading day are treated as trading days if they are weekdays.
+ * This class is package private that is accessible to only classes present in model package.
+ */
+class TradingCalendar {
+
+  private final int[] days;
+  private final int firstDay;
+  private final int[] rank;
+
+  /**
+   * parameterized constructor to build the calendar from the trading days of a series.
+   *
+   * @param series daily price series whose days are the trading days.
+   */
+  TradingCalendar(PriceSeries series) {
+    this.days = new int[series.size()];
+    for (int i = 0; i < days.length; i++) {
+      days[i] = series.getDay(i);
+    }
+
+    if (days.length == 0) {
+      this.firstDay = 0;
+      this.rank = new int[0];
+      return;
+    }
+
+    this.firstDay = days[0];
+    this.rank = new int[days[days.length - 1] - firstDay + 1];
+    int count = 0;
+    for (int d = 0; d < rank.length; d++) {
+      if (days[count] == firstDay + d) {
+        count++;
+      }
+      rank[d] = count;
+    }
+  }
+
+  /**
+   * returns the number of trading days on or before the given day.
+   */
+  private int rank(int epochDay) {
+    if (days.length == 0 || epochDay < firstDay) {
+      return 0;
+    }
+    if (epochDay - firstDay >= rank.length) {
+      return days.length;
+    }
+    return rank[epochDay - firstDay];
+  }
+
+  /**
+   * tells whether the market was open on the given day.
+   *
+   * @param epochDay day as an epoch day.
+   * @return true if the day is a trading day.
+   */
+  boolean isTradingDay(int epochDay) {
+    if (days.length == 0 || epochDay > days[days.length - 1]) {
+      return isWeekday(epochDay);
+    }
+    int r = rank(epochDay);
+    return r > 0 && days[r - 1] == epochDay;
+  }
+
+  /**
+   * returns the given day if it is a trading day, else the most recent trading day before it.
+   *
+   * @param epochDay day as an epoch day.
+   * @return trading day as an epoch day or -1 if there is no trading day on or before the day.
+   */
+  int previousTradingDay(int epochDay) {
+    if (days.length > 0 && epochDay > days[days.length - 1]) {
+      int day = epochDay;
+      while (!isWeekday(day)) {
+        day--;
+      }
+      return Math.max(day, days[days.length - 1]);
+    }
+    int r = rank(epochDay);
+    return r == 0 ? -1 : days[r - 1];
+  }
+
+  /**
+   * returns the last trading day of the month of the given day. For the current month this is
+   * the most recent trading day so far.
+   *
+   * @param epochDay any day of the month as an epoch day.
+   * @return trading day as an epoch day or -1 if the month has no trading day.
+   */
+  int monthEnd(int epochDay) {
+    int key = PriceSeries.monthKey(epochDay);
+    int nextMonth = PriceSeries.epochDay((key + 1) / 12, (key + 1) % 12 + 1, 1);
+    int end = nextMonth - 1;
+    if (days.length > 0) {
+      end = Math.min(end, days[days.length - 1]);
+    }
+    int last = previousTradingDay(end);
+    if (last < 0 || PriceSeries.monthKey(last) != key) {
+      return -1;
+    }
+    return last;
+  }
+
+  /**
+   * returns the trading days following the given day.
+   *
+   * @param epochDay day as an epoch day, which is not included in the result.
+   * @param count    number of trading days wanted.
+   * @return up to count trading days in ascending order; fewer if the calendar ends sooner.
+   */
+  int[] nextTradingDays(int epochDay, int count) {
+    int start = rank(epochDay);
+    return Arrays.copyOfRange(days, start, Math.min(days.length, start + count));
+  }
+
+  /**
+   * returns the number of trading days after the first day up to and including the second day.
+   *
+   * @param fromDay start day as an epoch day, not counted.
+   * @param toDay   end day as an epoch day, counted.
+   * @return number of trading days in between, negative if the end is before the start.
+   */
+  int tradingDaysBetween(int fromDay, int toDay) {
+    return rank(toDay) - rank(fromDay);
+  }
+
+  private static boolean isWeekday(int epochDay) {
+    // 1970-01-01 was a Thursday, so Math.floorMod(epochDay + 3, 7) is 0 on Mondays.
+    return Math.floorMod(epochDay + 3, 7) < 5;
+  }
+}
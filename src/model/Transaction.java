@@ -0,0 +1,83 @@
+package model;
+
+/**
+ * Immutable record of a single buy or sell of a stock in a flexible portfolio.
+ * The date is kept both as entered and as an epoch day so that records can be compared without
+ * parsing dates again.
+ * This class is package private that is accessible to only classes present in model package.
+ */
+class Transaction {
+
+  private final char operation;
+  private final String symbol;
+  private final double quantity;
+  private final String date;
+  private final int day;
+  private final Double price;
+
+  /**
+   * parameterized constructor to initialize all the fields of a transaction.
+   *
+   * @param operation 'b' for a buy or 's' for a sell.
+   * @param symbol    ticker symbol.
+   * @param quantity  number of shares.
+   * @param date      date of the transaction in yyyy-MM-dd format.
+   * @param price     price per share including commission, or null if it was not recorded.
+   */
+  Transaction(char operation, String symbol, double quantity, String date, Double price) {
+    this.operation = operation;
+    this.symbol = symbol;
+    this.quantity = quantity;
+    this.date = date;
+    this.day = PriceSeries.toEpochDay(date);
+    this.price = price;
+  }
+
+  /**
+   * parameterized constructor to initialize all the fields of a transaction whose date is known
+   * as an epoch day.
+   *
+   * @param operation 'b' for a buy or 's' for a sell.
+   * @param symbol    ticker symbol.
+   * @param quantity  number of shares.
+   * @param day       date of the transaction as an epoch day.
+   * @param price     price per share including commission, or null if it was not recorded.
+   */
+  Transaction(char operation, String symbol, double quantity, int day, Double price) {
+    this.operation = operation;
+    this.symbol = symbol;
+    this.quantity = quantity;
+    this.date = PriceSeries.toDateString(day);
+    this.day = day;
+    this.price = price;
+  }
+
+  char getOperation() {
+    return operation;
+  }
+
+  String getSymbol() {
+    return symbol;
+  }
+
+  double getQuantity() {
+    return quantity;
+  }
+
+  String getDate() {
+    return date;
+  }
+
+  /**
+   * returns the date of the transaction as an epoch day.
+   *
+   * @return number of days since 1970-01-01.
+   */
+  int getDay() {
+    return day;
+  }
+
+  Double getPrice() {
+    return price;
+  }
+}
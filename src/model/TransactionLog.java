@@ -0,0 +1,252 @@
+package model;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append only log of the transactions recorded in a portfolio file since the file was last
+ * rewritten. Each transaction is one line "operation,symbol,quantity,date,price" with an empty
+ * price if none was recorded. The log of a portfolio file lives in the hidden ".meta" directory
+ * next to it, so a trade costs one small sequential write instead of a rewrite of the whole file.
+ * Appends are forced to disk before they return. A log starts with a "#id" line holding a random
+ * id. A rewritten portfolio file records the mark of the log it merged, i.e. its id and length,
+ * so that a log left behind by a crash is not replayed up to that length, while trades appended
+ * to it later are.
+ * A crash during an append may leave an incomplete last line. Such a line was never
+ * acknowledged, so it is ignored when the log is read and cut off before the next append.
+ * This class is package private that is accessible to only classes present in model package.
+ */
+class TransactionLog {
+
+  private static final SecureRandom RANDOM = new SecureRandom();
+  private static final int TAIL_BYTES = 4096;
+
+  private final File logFile;
+
+  /**
+   * parameterized constructor to create the log of the given portfolio file.
+   *
+   * @param portfolioFile portfolio file whose transactions are logged.
+   */
+  TransactionLog(File portfolioFile) {
+    this.logFile = new File(new File(portfolioFile.getAbsoluteFile().getParentFile(), ".meta"),
+            portfolioFile.getName() + ".log");
+  }
+
+  /**
+   * appends the transactions at the end of the log.
+   *
+   * @param transactions transactions to be appended.
+   */
+  void append(List<Transaction> transactions) {
+    File parent = logFile.getParentFile();
+    if (!parent.isDirectory() && !parent.mkdirs()) {
+      throw new RuntimeException("An error occurred while writing to a file.");
+    }
+
+    dropTornTail();
+    boolean created = logFile.length() == 0;
+    try (FileOutputStream fos = new FileOutputStream(logFile, true)) {
+      Writer writer = new BufferedWriter(new OutputStreamWriter(fos, StandardCharsets.UTF_8));
+      if (created) {
+        writer.write("#" + Long.toHexString(RANDOM.nextLong()) + "\n");
+      }
+      for (Transaction t : transactions) {
+        writer.write(t.getOperation() + "," + t.getSymbol() + "," + t.getQuantity() + ","
+                + t.getDate() + "," + (t.getPrice() == null ? "" : t.getPrice()) + "\n");
+      }
+      writer.flush();
+      fos.getFD().sync();
+    } catch (IOException e) {
+      throw new RuntimeException("An error occurred while writing to a file.");
+    }
+    if (created) {
+      AtomicFiles.syncDirectory(parent);
+    }
+  }
+
+  /**
+   * cuts off a last line left incomplete or unreadable by a crash during an append, so that the
+   * next append does not turn it into a damaged line in the middle of the log.
+   */
+  private void dropTornTail() {
+    if (!logFile.isFile() || logFile.length() == 0) {
+      return;
+    }
+    try (FileChannel channel = FileChannel.open(logFile.toPath(), StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+      long size = channel.size();
+      ByteBuffer tail = ByteBuffer.allocate((int) Math.min(size, TAIL_BYTES));
+      long offset = size - tail.capacity();
+      while (tail.hasRemaining() && channel.read(tail, offset + tail.position()) >= 0) {
+        // keep reading until the buffer is full.
+      }
+      byte[] bytes = tail.array();
+
+      int end = bytes[bytes.length - 1] == '\n' ? bytes.length - 1 : bytes.length;
+      int start = end;
+      while (start > 0 && bytes[start - 1] != '\n') {
+        start--;
+      }
+      if (start == 0 && offset > 0) {
+        return;
+      }
+      String line = new String(bytes, start, end - start, StandardCharsets.UTF_8);
+      if (end < bytes.length && (line.isEmpty() || line.startsWith("#") || isValid(line))) {
+        return;
+      }
+      channel.truncate(offset + start);
+      channel.force(true);
+    } catch (IOException e) {
+      throw new RuntimeException("An error occurred while writing to a file.");
+    }
+  }
+
+  private static boolean isValid(String line) {
+    try {
+      parse(line);
+      return true;
+    } catch (RuntimeException e) {
+      return false;
+    }
+  }
+
+  private static Transaction parse(String line) {
+    String[] cols = line.split(",", -1);
+    Double price = cols[4].isEmpty() ? null : Double.parseDouble(cols[4]);
+    return new Transaction(cols[0].charAt(0), cols[1], Double.parseDouble(cols[2]), cols[3],
+            price);
+  }
+
+  /**
+   * returns the id of the log.
+   *
+   * @return id from the first line of the log, or null if there is no log or it has no id.
+   */
+  String getId() {
+    if (!logFile.isFile()) {
+      return null;
+    }
+    try (BufferedReader br = new BufferedReader(new FileReader(logFile,
+            StandardCharsets.UTF_8))) {
+      String line = br.readLine();
+      return line != null && line.startsWith("#") ? line.substring(1) : null;
+    } catch (IOException e) {
+      throw new RuntimeException("Transaction log " + logFile.getName() + " is corrupt.");
+    }
+  }
+
+  /**
+   * returns the mark of the log as it is now, i.e. its id and its length, which a portfolio file
+   * records when it merges the log.
+   *
+   * @return mark in the format "id@length", or null if there is no log or it has no id.
+   */
+  String getMark() {
+    String id = getId();
+    return id == null ? null : id + "@" + logFile.length();
+  }
+
+  /**
+   * reads the transactions appended to the log after the given mark. If the mark belongs to
+   * another log, every transaction is read. A mark without a length covers the whole log.
+   *
+   * @param mark mark recorded by the portfolio file, or null if there is none.
+   * @return logged transactions after the mark.
+   */
+  List<Transaction> readAfter(String mark) {
+    if (mark == null) {
+      return read();
+    }
+    int at = mark.lastIndexOf('@');
+    if (!mark.substring(0, at < 0 ? mark.length() : at).equals(getId())) {
+      return read();
+    }
+    if (at < 0) {
+      return new ArrayList<>();
+    }
+    try {
+      return read(Long.parseLong(mark.substring(at + 1)));
+    } catch (NumberFormatException e) {
+      throw new RuntimeException("Transaction log " + logFile.getName() + " is corrupt.");
+    }
+  }
+
+  /**
+   * reads every transaction of the log in the order they were appended. A last line which is
+   * incomplete or cannot be parsed is left out, as its append never finished; a bad line before
+   * it means the log is damaged.
+   *
+   * @return logged transactions, empty if there is no log.
+   */
+  List<Transaction> read() {
+    return read(0);
+  }
+
+  private List<Transaction> read(long offset) {
+    List<Transaction> transactions = new ArrayList<>();
+    if (!logFile.isFile()) {
+      return transactions;
+    }
+
+    String content;
+    try {
+      byte[] bytes = Files.readAllBytes(logFile.toPath());
+      int start = (int) Math.min(offset, bytes.length);
+      content = new String(bytes, start, bytes.length - start, StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new RuntimeException("Transaction log " + logFile.getName() + " is corrupt.");
+    }
+
+    int start = 0;
+    int end;
+    while ((end = content.indexOf('\n', start)) >= 0) {
+      String line = content.substring(start, end);
+      start = end + 1;
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      try {
+        transactions.add(parse(line));
+      } catch (RuntimeException e) {
+        if (start < content.length()) {
+          throw new RuntimeException("Transaction log " + logFile.getName() + " is corrupt.");
+        }
+      }
+    }
+    return transactions;
+  }
+
+  /**
+   * returns the size of the log in bytes.
+   *
+   * @return size of the log, 0 if there is no log.
+   */
+  long length() {
+    return logFile.length();
+  }
+
+  /**
+   * removes the log, after its transactions were written into the portfolio file or when the
+   * portfolio file itself is removed.
+   */
+  void delete() {
+    if (logFile.exists() && !logFile.delete()) {
+      throw new RuntimeException("An error occurred while deleting " + logFile.getName());
+    }
+  }
+}
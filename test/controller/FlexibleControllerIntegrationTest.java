@@ -65,7 +65,7 @@ public class FlexibleControllerIntegrationTest {
 
     model = new FlexibleStockModel();
 
-    model.authenticateCredentials("admin", "Asdf@1234");
+    model = model.forSession("admin", "Asdf@1234");
 
     copyFolder(Path.of(codePath), Path.of(codeDump), StandardCopyOption.REPLACE_EXISTING);
     deleteDirectory(new File(codePath + "/admin"));
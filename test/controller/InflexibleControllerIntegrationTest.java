@@ -60,7 +60,7 @@ public class InflexibleControllerIntegrationTest {
 
     model = new InflexibleStockModel();
 
-    model.authenticateCredentials("admin", "Asdf@1234");
+    model = model.forSession("admin", "Asdf@1234");
 
     copyFolder(Path.of(codePath), Path.of(codeDump), StandardCopyOption.REPLACE_EXISTING);
     deleteDirectory(new File(codePath + "/admin"));
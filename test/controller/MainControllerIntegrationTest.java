@@ -64,8 +64,8 @@ public class MainControllerIntegrationTest {
     advancedModel = new FlexibleStockModel();
     baseModel = new InflexibleStockModel();
 
-    advancedModel.authenticateCredentials("admin", "Asdf@1234");
-    baseModel.authenticateCredentials("admin", "Asdf@1234");
+    advancedModel = advancedModel.forSession("admin", "Asdf@1234");
+    baseModel = baseModel.forSession("admin", "Asdf@1234");
 
     copyFolder(Path.of(codePath), Path.of(codeDump), StandardCopyOption.REPLACE_EXISTING);
     deleteDirectory(new File(codePath + "/admin"));
@@ -2,6 +2,7 @@ package controller;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -46,6 +47,11 @@ class MockModel implements BaseModelInterface, AdvancedModelInterface {
     return true;
   }
 
+  @Override
+  public MockModel forSession(String user, String pwd) {
+    return this;
+  }
+
 
   @Override
   public List<String> getPortFolioList() {
@@ -146,6 +152,22 @@ class MockModel implements BaseModelInterface, AdvancedModelInterface {
     return 0;
   }
 
+  @Override
+  public Map<String, Double> calculateOpenCostBasis(int pfNumber, String date, String method) {
+    log.setLength(0);
+    log.append("pfNumber passed is " + pfNumber);
+    log.append("\nDate passed is " + date);
+    log.append("\nMethod passed is " + method);
+    return new HashMap<>();
+  }
+
+  @Override
+  public Map<String, Double> calculateAllValuations(String date) {
+    log.setLength(0);
+    log.append("Date passed is " + date);
+    return new HashMap<>();
+  }
+
   @Override
   public PortfolioInterface examineFlexPortfolio(int pfNumber, String date) throws IOException {
     log.setLength(0);
@@ -171,4 +193,10 @@ class MockModel implements BaseModelInterface, AdvancedModelInterface {
     log.append("sourceFile path passed is " + sourceFile);
     return null;
   }
-}
\ No newline at end of file
+
+  @Override
+  public boolean isTradingDay(String date) {
+    log.append("Date passed is " + date);
+    return true;
+  }
+}
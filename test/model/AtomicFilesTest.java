@@ -0,0 +1,59 @@
+package model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+/**
+ * JUnit test class to test the atomic replacement of files in a temporary directory.
+ */
+public class AtomicFilesTest {
+
+  private File directory;
+  private File target;
+
+  @Before
+  public void setUp() throws IOException {
+    directory = TestData.directory("atomic");
+    target = new File(directory, "pf.json");
+  }
+
+  private String read() throws IOException {
+    return new String(Files.readAllBytes(target.toPath()), StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testWrite() throws IOException {
+    AtomicFiles.write(target, out -> out.write("old".getBytes(StandardCharsets.UTF_8)));
+    assertEquals("old", read());
+
+    AtomicFiles.write(target, out -> out.write("new".getBytes(StandardCharsets.UTF_8)));
+    assertEquals("new", read());
+    assertEquals(1, directory.list().length);
+  }
+
+  @Test
+  public void testFailedWriteKeepsTarget() throws IOException {
+    AtomicFiles.write(target, out -> out.write("old".getBytes(StandardCharsets.UTF_8)));
+
+    try {
+      AtomicFiles.write(target, out -> {
+        out.write("ne".getBytes(StandardCharsets.UTF_8));
+        throw new IOException("disk full");
+      });
+      fail("the failure of the content was not thrown");
+    } catch (IOException e) {
+      assertEquals("disk full", e.getMessage());
+    }
+    assertEquals("old", read());
+    assertFalse(new File(directory, ".pf.json.tmp").exists());
+  }
+}
@@ -0,0 +1,121 @@
+package model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import static model.TestData.history;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * JUnit test class to test binary portfolio files and the recovery of a portfolio file and its
+ * transaction log after a crash.
+ */
+public class BinaryReadWriteTest {
+
+  private File file;
+  private Properties properties;
+  private BinaryReadWrite parser;
+
+  @Before
+  public void setUp() throws IOException {
+    file = new File(TestData.directory("binary"), "pf.pfb");
+    properties = new Properties();
+    parser = new BinaryReadWrite(properties);
+    parser.writeSnapshot(file, history(
+            new Transaction('b', "AAPL", 10, "2022-01-03", 100.0),
+            new Transaction('b', "MSFT", 2.5, "2022-02-01", null),
+            new Transaction('s', "AAPL", 4, "2022-03-01", 5.0)), null);
+  }
+
+  private static List<String> describe(List<Transaction> transactions) {
+    List<String> result = new ArrayList<>();
+    for (Transaction t : transactions) {
+      result.add(t.getOperation() + " " + t.getSymbol() + " " + t.getQuantity() + " "
+              + t.getDate() + " " + t.getPrice());
+    }
+    return result;
+  }
+
+  private List<String> buys() {
+    return describe(parser.readHistory(file).getBuys());
+  }
+
+  @Test
+  public void testRoundTrip() {
+    PortfolioHistory history = parser.readHistory(file);
+    assertEquals(Arrays.asList("b AAPL 10.0 2022-01-03 100.0", "b MSFT 2.5 2022-02-01 null"),
+            describe(history.getBuys()));
+    assertEquals(Arrays.asList("s AAPL 4.0 2022-03-01 5.0"), describe(history.getSells()));
+  }
+
+  @Test
+  public void testConvert() {
+    File json = new File(file.getParentFile(), "pf.json");
+    AbstractPortfolioReadWrite.convert(file, json, properties);
+    File back = new File(file.getParentFile(), "back.pfb");
+    AbstractPortfolioReadWrite.convert(json, back, properties);
+
+    assertEquals(buys(), describe(parser.readHistory(back).getBuys()));
+  }
+
+  @Test
+  public void testLogIsReplayed() {
+    new TransactionLog(file).append(Arrays.asList(
+            new Transaction('b', "GOOG", 1, "2022-04-01", 90.0)));
+    assertEquals(3, buys().size());
+  }
+
+  @Test
+  public void testCompaction() {
+    properties.setProperty("transaction_log_max_bytes", "1");
+    parser.append(file, Arrays.asList(new Transaction('b', "GOOG", 1, "2022-04-01", 90.0)));
+
+    assertEquals(0, new TransactionLog(file).length());
+    assertEquals(3, buys().size());
+  }
+
+  @Test
+  public void testCrashBeforeLogIsDeleted() {
+    TransactionLog log = new TransactionLog(file);
+    log.append(Arrays.asList(new Transaction('b', "GOOG", 1, "2022-04-01", 90.0)));
+    parser.writeSnapshot(file, parser.readHistory(file), log.getMark());
+
+    assertEquals(3, buys().size());
+
+    parser.append(file, Arrays.asList(new Transaction('b', "IBM", 1, "2022-05-02", 80.0)));
+    assertEquals(4, buys().size());
+  }
+
+  @Test
+  public void testCrashDuringAppend() throws IOException {
+    TransactionLog log = new TransactionLog(file);
+    log.append(Arrays.asList(new Transaction('b', "GOOG", 1, "2022-04-01", 90.0)));
+    File logFile = new File(new File(file.getParentFile(), ".meta"), "pf.pfb.log");
+    try (FileOutputStream out = new FileOutputStream(logFile, true)) {
+      out.write("b,IBM,1.0,2022-0".getBytes(StandardCharsets.UTF_8));
+    }
+    assertEquals(3, buys().size());
+
+    parser.append(file, Arrays.asList(new Transaction('b', "IBM", 1, "2022-05-02", 80.0)));
+    assertEquals("b IBM 1.0 2022-05-02 80.0", buys().get(3));
+    assertFalse(new File(file.getParentFile(), ".pf.pfb.tmp").exists());
+  }
+
+  @Test(expected = RuntimeException.class)
+  public void testNotAPortfolioFile() throws IOException {
+    try (FileOutputStream out = new FileOutputStream(file)) {
+      out.write("{\"Buy\":[]}".getBytes(StandardCharsets.UTF_8));
+    }
+    parser.readHistory(file);
+  }
+}
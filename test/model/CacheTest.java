@@ -0,0 +1,115 @@
+package model;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * JUnit test class to test the bounded price cache in isolation.
+ */
+public class CacheTest {
+
+  private static PriceSeries series(int day) {
+    return new PriceSeries(new int[]{day}, new double[]{1}, new double[]{1}, new double[]{1},
+            new double[]{day}, new double[]{1});
+  }
+
+  @Test
+  public void testLoadsOnlyOnce() {
+    Cache cache = new Cache();
+    AtomicInteger loads = new AtomicInteger();
+
+    PriceSeries first = cache.getOrLoad("AAPL", key -> {
+      loads.incrementAndGet();
+      return series(1);
+    });
+    PriceSeries second = cache.getOrLoad("AAPL", key -> {
+      loads.incrementAndGet();
+      return series(2);
+    });
+
+    assertSame(first, second);
+    assertEquals(1, loads.get());
+    assertEquals(1, cache.getStats().getHitCount());
+    assertEquals(1, cache.getStats().getMissCount());
+    assertEquals(1, cache.getStats().getLoadCount());
+  }
+
+  @Test
+  public void testFailedLoadIsRetried() {
+    Cache cache = new Cache();
+
+    try {
+      cache.getOrLoad("AAPL", key -> {
+        throw new RuntimeException("No price data found for AAPL");
+      });
+      fail("Exception should have been thrown");
+    } catch (RuntimeException e) {
+      assertEquals("No price data found for AAPL", e.getMessage());
+    }
+
+    assertNull(cache.get("AAPL"));
+    assertEquals(3.0, cache.getOrLoad("AAPL", key -> series(3)).getClose(0), 0.0);
+  }
+
+  @Test
+  public void testLoaderErrorIsNotCached() throws Exception {
+    Cache cache = new Cache();
+    CountDownLatch loading = new CountDownLatch(1);
+    AtomicReference<Throwable> waiterFailure = new AtomicReference<>();
+
+    Thread waiter = new Thread(() -> {
+      try {
+        loading.await();
+        cache.getOrLoad("AAPL", key -> series(2));
+      } catch (Throwable e) {
+        waiterFailure.set(e);
+      }
+    });
+    waiter.start();
+
+    try {
+      cache.getOrLoad("AAPL", key -> {
+        loading.countDown();
+        while (cache.getStats().getHitCount() == 0) {
+          Thread.onSpinWait();
+        }
+        throw new OutOfMemoryError("Java heap space");
+      });
+      fail("Error should have been thrown");
+    } catch (OutOfMemoryError e) {
+      assertEquals("Java heap space", e.getMessage());
+    }
+
+    waiter.join(5000);
+    assertFalse(waiter.isAlive());
+    assertTrue(waiterFailure.get() instanceof OutOfMemoryError);
+    assertNull(cache.get("AAPL"));
+    assertEquals(3.0, cache.getOrLoad("AAPL", key -> series(3)).getClose(0), 0.0);
+  }
+
+  @Test
+  public void testEvictsLeastRecentlyUsed() {
+    Cache cache = new Cache(2, Long.MAX_VALUE);
+
+    cache.getOrLoad("AAPL", key -> series(1));
+    cache.getOrLoad("MSFT", key -> series(2));
+    cache.get("AAPL");
+    cache.getOrLoad("TSLA", key -> series(3));
+
+    assertNull(cache.get("MSFT"));
+    assertEquals(1.0, cache.get("AAPL").getClose(0), 0.0);
+    assertEquals(3.0, cache.get("TSLA").getClose(0), 0.0);
+    assertEquals(1, cache.getStats().getEvictionCount());
+    assertEquals(2, cache.getStats().getSize());
+  }
+}
@@ -0,0 +1,46 @@
+package model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * JUnit test class to test the dates of a cost averaging strategy against the price fixture in
+ * test/resources/prices, whose trading days are 2022-11-22 to 2022-11-30 without 2022-11-24.
+ */
+public class CostAveragingTest {
+
+  private CostAveraging costAveraging;
+
+  @Before
+  public void setUp() throws IOException {
+    Properties properties = new Properties();
+    properties.setProperty("price_provider", "csv");
+    properties.setProperty("price_provider_dir", "test/resources/prices");
+    properties.setProperty("calendar_symbol", "AAPL");
+    costAveraging = new CostAveraging(new StockPrice(properties), properties);
+  }
+
+  @Test
+  public void testDailyFromFriday() {
+    assertEquals(Arrays.asList("2022-11-28", "2022-11-29", "2022-11-30"),
+            costAveraging.getDates("2022-11-25", "2022-11-30", 1));
+  }
+
+  @Test
+  public void testEveryOtherDayFromFriday() {
+    assertEquals(Arrays.asList("2022-11-29"),
+            costAveraging.getDates("2022-11-25", "2022-11-30", 2));
+  }
+
+  @Test
+  public void testHolidayIsNotBoughtTwice() {
+    assertEquals(Arrays.asList("2022-11-23", "2022-11-25"),
+            costAveraging.getDates("2022-11-22", "2022-11-25", 1));
+  }
+}
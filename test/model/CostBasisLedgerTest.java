@@ -0,0 +1,76 @@
+package model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static model.TestData.day;
+import static model.TestData.history;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * JUnit test class to test the cost basis ledger in isolation.
+ */
+public class CostBasisLedgerTest {
+
+  private CostBasisLedger ledger;
+
+  @Before
+  public void setUp() {
+    PortfolioHistory history = history(
+            new Transaction('b', "AAPL", 5, "2022-01-10", 100.0),
+            new Transaction('b', "AAPL", 10, "2022-02-01", 120.0),
+            new Transaction('b', "MSFT", 3, "2022-03-01", 50.0),
+            new Transaction('s', "AAPL", 8, "2022-02-15", 2.0));
+    ledger = CostBasisLedger.build(history);
+  }
+
+  @Test
+  public void testCostBasisAt() {
+    assertEquals(0, ledger.costBasisAt(day("2022-01-09")), 1e-9);
+    assertEquals(500, ledger.costBasisAt(day("2022-01-10")), 1e-9);
+    assertEquals(1700, ledger.costBasisAt(day("2022-02-14")), 1e-9);
+    assertEquals(1716, ledger.costBasisAt(day("2022-02-15")), 1e-9);
+    assertEquals(1866, ledger.costBasisAt(day("2022-12-31")), 1e-9);
+  }
+
+  @Test
+  public void testBackdatedTransaction() {
+    ledger.add(new Transaction('b', "AAPL", 1, "2022-01-01", 10.0));
+    assertEquals(10, ledger.costBasisAt(day("2022-01-05")), 1e-9);
+    assertEquals(1876, ledger.costBasisAt(day("2022-12-31")), 1e-9);
+
+    ledger.add(new Transaction('b', "MSFT", 1, "2023-01-02", 60.0));
+    assertEquals(1936, ledger.costBasisAt(day("2023-01-02")), 1e-9);
+  }
+
+  @Test
+  public void testFifoLots() {
+    List<CostBasisLedger.Lot> lots = ledger.openLots(day("2022-02-10"),
+            CostBasisLedger.LotMethod.FIFO);
+    assertEquals(2, lots.size());
+    assertEquals(5, lots.get(0).getQuantity(), 1e-9);
+    assertEquals(1200, lots.get(1).getCost(), 1e-9);
+
+    lots = ledger.openLots(day("2022-03-01"), CostBasisLedger.LotMethod.FIFO);
+    assertEquals(2, lots.size());
+    assertEquals("AAPL", lots.get(0).getSymbol());
+    assertEquals(day("2022-02-01"), lots.get(0).getDay());
+    assertEquals(7, lots.get(0).getQuantity(), 1e-9);
+    assertEquals(840, lots.get(0).getCost(), 1e-9);
+    assertEquals("MSFT", lots.get(1).getSymbol());
+    assertEquals(150, lots.get(1).getCost(), 1e-9);
+  }
+
+  @Test
+  public void testAverageLots() {
+    List<CostBasisLedger.Lot> lots = ledger.openLots(day("2022-03-01"),
+            CostBasisLedger.LotMethod.AVERAGE);
+    assertEquals(2, lots.size());
+    assertEquals(day("2022-01-10"), lots.get(0).getDay());
+    assertEquals(7, lots.get(0).getQuantity(), 1e-9);
+    assertEquals(1700.0 / 15, lots.get(0).getUnitCost(), 1e-9);
+    assertEquals(150, lots.get(1).getCost(), 1e-9);
+  }
+}
@@ -0,0 +1,65 @@
+package model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Properties;
+
+import static model.TestData.day;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * JUnit test class to test the csv price provider against the fixture in test/resources/prices.
+ */
+public class CsvPriceProviderTest {
+
+  private Properties properties;
+
+  @Before
+  public void setUp() {
+    properties = new Properties();
+    properties.setProperty("price_provider", "csv");
+    properties.setProperty("price_provider_dir", "test/resources/prices");
+  }
+
+  @Test
+  public void testFetchDaily() {
+    CsvPriceProvider provider = new CsvPriceProvider(properties);
+    PriceSeries series = provider.fetchDaily("AAPL", false);
+
+    assertFalse(provider.isRemote());
+    assertEquals(6, series.size());
+    assertEquals(day("2022-11-22"), series.getDay(0));
+    assertEquals(day("2022-11-30"), series.getDay(5));
+    assertEquals(150.18, series.closeAsOf(day("2022-11-22")), 0.0);
+    assertEquals(141.17, series.closeAsOf(day("2022-11-29")), 0.0);
+  }
+
+  @Test
+  public void testCloseAsOf() {
+    PriceSeries series = new CsvPriceProvider(properties).fetchDaily("AAPL", false);
+
+    assertEquals(151.07, series.closeAsOf(day("2022-11-24")), 0.0);
+    assertEquals(148.11, series.closeAsOf(day("2022-11-27")), 0.0);
+    assertEquals(148.03, series.closeAsOf(day("2022-12-05")), 0.0);
+    assertEquals(-1.0, series.closeAsOf(day("2022-11-21")), 0.0);
+  }
+
+  @Test
+  public void testStockPrice() {
+    StockPrice stockPrice = new StockPrice(properties);
+
+    assertEquals(144.22, stockPrice.getStockPriceByApi("AAPL", "2022-11-28", properties), 0.0);
+    assertEquals(148.11, stockPrice.getStockPriceByApi("AAPL", "2022-11-26", properties), 0.0);
+    assertArrayEquals(new double[]{151.07, 148.03}, new double[]{
+        stockPrice.getStockPricesByApi(new String[]{"AAPL"}, "2022-11-24", properties)[0],
+        stockPrice.getStockPricesByApi(new String[]{"AAPL"}, "2022-12-01", properties)[0]}, 0.0);
+  }
+
+  @Test(expected = RuntimeException.class)
+  public void testMissingSymbol() {
+    new CsvPriceProvider(properties).fetchDaily("NOPE", false);
+  }
+}
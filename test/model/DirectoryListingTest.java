@@ -0,0 +1,80 @@
+package model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * JUnit test class to test the cached listings of portfolio directories.
+ */
+public class DirectoryListingTest {
+
+  private File directory;
+
+  @Before
+  public void setUp() throws IOException {
+    directory = TestData.directory("listing");
+  }
+
+  private void create(String... names) throws IOException {
+    for (String name : names) {
+      assertTrue(new File(directory, name).createNewFile());
+    }
+  }
+
+  @Test
+  public void testGetNames() throws IOException {
+    create("admin10.json", "admin2.json", "admin1.pfb", ".admin3.json.tmp");
+    assertTrue(new File(directory, ".meta").mkdir());
+
+    assertEquals(Arrays.asList("admin1.pfb", "admin2.json", "admin10.json"),
+            DirectoryListing.of(directory).getNames());
+  }
+
+  @Test
+  public void testAddedAndRemoved() throws IOException {
+    create("admin1.json");
+    DirectoryListing listing = DirectoryListing.of(directory);
+    assertEquals(Arrays.asList("admin1.json"), listing.getNames());
+
+    create("admin2.json");
+    listing.added("admin2.json");
+    assertEquals(Arrays.asList("admin1.json", "admin2.json"), listing.getNames());
+
+    assertTrue(new File(directory, "admin1.json").delete());
+    listing.removed("admin1.json");
+    assertEquals(Arrays.asList("admin2.json"), listing.getNames());
+  }
+
+  @Test
+  public void testExternalChanges() throws Exception {
+    DirectoryListing listing = DirectoryListing.of(directory);
+    assertEquals(Arrays.asList(), listing.getNames());
+
+    create("admin1.json");
+    List<String> names = listing.getNames();
+    for (int i = 0; i < 100 && names.isEmpty(); i++) {
+      Thread.sleep(50);
+      names = listing.getNames();
+    }
+    assertEquals(Arrays.asList("admin1.json"), names);
+  }
+
+  @Test
+  public void testMissingDirectory() throws IOException {
+    File missing = new File(directory, "admin");
+    DirectoryListing listing = DirectoryListing.of(missing);
+    assertEquals(Arrays.asList(), listing.getNames());
+
+    assertTrue(missing.mkdir());
+    assertTrue(new File(missing, "admin1.json").createNewFile());
+    assertEquals(Arrays.asList("admin1.json"), listing.getNames());
+  }
+}
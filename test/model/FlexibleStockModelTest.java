@@ -66,7 +66,7 @@ public class FlexibleStockModelTest {
 
     model = new FlexibleStockModel();
 
-    model.authenticateCredentials("admin", "Asdf@1234");
+    model = model.forSession("admin", "Asdf@1234");
 
     copyFolder(Path.of(codePath), Path.of(codeDump), StandardCopyOption.REPLACE_EXISTING);
     deleteDirectory(new File(codePath + "/admin"));
@@ -193,6 +193,20 @@ public class FlexibleStockModelTest {
     assertEquals(24823.2, costBasis, 0.01);
   }
 
+  @Test
+  public void calculateAllValuations() {
+    String date = "2022-11-14";
+
+    Map<String, Double> valuations = model.calculateAllValuations(date);
+
+    List<String> pfList = model.getPortFolioList();
+    assertEquals(pfList, new ArrayList<>(valuations.keySet()));
+    for (int i = 0; i < pfList.size(); i++) {
+      assertEquals(model.calculateValuation(i + 1, date), valuations.get(pfList.get(i)), 0.01);
+    }
+    assertEquals(24823.2, valuations.get(pfList.get(0)), 0.01);
+  }
+
   @Test
   public void examineFlexPortfolio() {
 
@@ -0,0 +1,100 @@
+package model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static model.TestData.day;
+import static model.TestData.history;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * JUnit test class to test the holdings checkpoints in isolation.
+ */
+public class HoldingsCheckpointsTest {
+
+  private PortfolioHistory history;
+  private HoldingsCheckpoints checkpoints;
+
+  @Before
+  public void setUp() {
+    history = history(
+            new Transaction('b', "AAPL", 10, "2022-01-03", 100.0),
+            new Transaction('b', "MSFT", 5, "2022-03-15", 200.0),
+            new Transaction('b', "AAPL", 2, "2022-01-20", 110.0),
+            new Transaction('s', "AAPL", 4, "2022-03-01", 5.0),
+            new Transaction('s', "MSFT", 5, "2022-04-30", 5.0));
+    checkpoints = HoldingsCheckpoints.build(history);
+  }
+
+  private void assertHoldings(String date, List<String> symbols, List<Double> quantities) {
+    Portfolio pf = checkpoints.holdingsAt(day(date));
+    assertEquals(symbols, pf.getSymbol());
+    assertEquals(quantities, pf.getQuantity());
+  }
+
+  @Test
+  public void testHoldingsAt() {
+    assertHoldings("2021-12-31", Arrays.asList(), Arrays.asList());
+    assertHoldings("2022-01-03", Arrays.asList("AAPL"), Arrays.asList(10.0));
+    assertHoldings("2022-02-10", Arrays.asList("AAPL"), Arrays.asList(12.0));
+    assertHoldings("2022-03-14", Arrays.asList("AAPL"), Arrays.asList(8.0));
+    assertHoldings("2022-03-31", Arrays.asList("AAPL", "MSFT"), Arrays.asList(8.0, 5.0));
+    assertHoldings("2022-12-31", Arrays.asList("AAPL", "MSFT"), Arrays.asList(8.0, 0.0));
+  }
+
+  @Test
+  public void testValuesAt() {
+    int[] priceDays = {day("2022-01-03"), day("2022-02-01"), day("2022-03-15")};
+    double[] close = {10.0, 20.0, 30.0};
+    PriceSeries series = new PriceSeries(priceDays, close, close, close, close, close);
+    List<String> asked = new ArrayList<>();
+
+    double[] values = checkpoints.valuesAt(new int[]{day("2022-12-31"), day("2021-12-31"),
+        day("2022-01-20"), day("2022-03-31"), day("2022-02-10")}, symbol -> {
+          asked.add(symbol);
+          return series.slice(priceDays[0], day("2022-12-31"));
+        });
+
+    assertArrayEquals(new double[]{8 * 30.0, 0, 12 * 10.0, 8 * 30.0 + 5 * 30.0, 12 * 20.0},
+            values, 1e-9);
+    assertEquals(Arrays.asList("AAPL", "MSFT"), asked);
+  }
+
+  @Test
+  public void testAdd() {
+    HoldingsCheckpoints before = checkpoints;
+    Transaction[][] trades = {
+        {new Transaction('b', "TSLA", 3, "2022-04-30", 50.0)},
+        {new Transaction('b', "AAPL", 1, "2022-05-02", 120.0),
+            new Transaction('b', "MSFT", 2, "2022-05-02", 210.0)},
+        {new Transaction('s', "AAPL", 2, "2022-02-10", 5.0)},
+        {new Transaction('b', "NFLX", 7, "2021-12-15", 30.0)},
+        {new Transaction('b', "AAPL", 1, "2022-05-31", 130.0)}};
+    for (Transaction[] trade : trades) {
+      checkpoints = checkpoints.add(Arrays.asList(trade));
+      for (Transaction transaction : trade) {
+        history.add(transaction);
+      }
+
+      HoldingsCheckpoints built = HoldingsCheckpoints.build(history);
+      for (int d = day("2021-12-01"); d <= day("2022-06-30"); d++) {
+        Portfolio expected = built.holdingsAt(d);
+        Portfolio actual = checkpoints.holdingsAt(d);
+        assertEquals(new HashSet<>(expected.getSymbol()), new HashSet<>(actual.getSymbol()));
+        for (int i = 0; i < expected.getSymbol().size(); i++) {
+          int j = actual.getSymbol().indexOf(expected.getSymbol().get(i));
+          assertEquals(expected.getQuantity().get(i), actual.getQuantity().get(j), 1e-9);
+        }
+      }
+    }
+
+    checkpoints = before;
+    assertHoldings("2022-12-31", Arrays.asList("AAPL", "MSFT"), Arrays.asList(8.0, 0.0));
+  }
+}
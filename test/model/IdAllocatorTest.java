@@ -0,0 +1,77 @@
+package model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * JUnit test class to test the numbering of new portfolio and strategy files.
+ */
+public class IdAllocatorTest {
+
+  private File directory;
+
+  @Before
+  public void setUp() throws IOException {
+    directory = new File(TestData.directory("ids"), "admin");
+  }
+
+  @Test
+  public void testCreatesDirectory() throws IOException {
+    File file = IdAllocator.of(directory, "admin").create(".json");
+    assertEquals("admin1.json", file.getName());
+    assertTrue(file.isFile());
+  }
+
+  @Test
+  public void testContinuesAfterLastFile() throws IOException {
+    assertTrue(directory.mkdir());
+    for (String name : new String[]{"admin3.json", "admin12.pfb", "adminX.json", "other7.json"}) {
+      assertTrue(new File(directory, name).createNewFile());
+    }
+
+    IdAllocator allocator = IdAllocator.of(directory, "admin");
+    assertEquals("admin13.json", allocator.create(".json").getName());
+    assertEquals("admin14.pfb", allocator.create(".pfb").getName());
+    assertEquals(6, DirectoryListing.of(directory).getNames().size());
+  }
+
+  @Test
+  public void testConcurrentCreate() throws Exception {
+    Set<String> names = new HashSet<>();
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 8; t++) {
+      threads.add(new Thread(() -> {
+        for (int i = 0; i < 10; i++) {
+          try {
+            String name = IdAllocator.of(directory, "admin").create(".json").getName();
+            synchronized (names) {
+              names.add(name);
+            }
+          } catch (IOException e) {
+            throw new RuntimeException(e.getMessage());
+          }
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(80, names.size());
+    assertEquals(80, directory.list().length);
+    assertTrue(names.contains("admin80.json"));
+  }
+}
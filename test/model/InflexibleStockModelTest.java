@@ -25,6 +25,7 @@ import java.util.Properties;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 
@@ -61,7 +62,7 @@ public class InflexibleStockModelTest {
 
     model = new InflexibleStockModel();
 
-    model.authenticateCredentials("admin", "Asdf@1234");
+    model = model.forSession("admin", "Asdf@1234");
 
     copyFolder(Path.of(codePath), Path.of(codeDump), StandardCopyOption.REPLACE_EXISTING);
     deleteDirectory(new File(codePath + "/admin"));
@@ -97,6 +98,21 @@ public class InflexibleStockModelTest {
     assertFalse(model.authenticateCredentials(user, pwd1));
   }
 
+  @Test
+  public void checkSessionKeepsItsUser() throws IOException {
+    BaseModelInterface shared = new InflexibleStockModel();
+    BaseModelInterface session = shared.forSession("admin", "Asdf@1234");
+
+    assertEquals("admin", session.getUser());
+    assertEquals("Asdf@1234", session.getPwd());
+    assertNull(shared.getPwd());
+  }
+
+  @Test(expected = RuntimeException.class)
+  public void checkSessionNeedsCredentials() throws IOException {
+    new InflexibleStockModel().forSession("admin", "Asdf@123");
+  }
+
   @Test
   public void checkGetPortfolio() throws IOException {
 
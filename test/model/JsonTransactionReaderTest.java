@@ -0,0 +1,63 @@
+package model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * JUnit test class to test the streaming reader of portfolio json files.
+ */
+public class JsonTransactionReaderTest {
+
+  private File file;
+  private List<Transaction> transactions;
+
+  @Before
+  public void setUp() throws IOException {
+    file = new File(TestData.directory("json"), "pf.json");
+    transactions = new ArrayList<>();
+  }
+
+  private String read(String json) throws IOException {
+    Files.write(file.toPath(), json.getBytes(StandardCharsets.UTF_8));
+    return JsonTransactionReader.read(file, transactions::add);
+  }
+
+  @Test
+  public void testRead() throws IOException {
+    String compacted = read("{\"Sell\":[{\"Symbol\":\"AAPL\",\"Quantity\":4.0,"
+            + "\"Date\":\"2022-03-01\",\"Price\":5.0}],"
+            + "\"Buy\":[{\"Date\":\"2022-01-03\",\"Symbol\":\"AAPL\",\"Quantity\":10},"
+            + "{\"Symbol\":\"MSFT\",\"Quantity\":2.5,\"Date\":\"2022-02-01\",\"Price\":100}]}");
+
+    assertNull(compacted);
+    assertEquals(3, transactions.size());
+    assertEquals('s', transactions.get(0).getOperation());
+    assertEquals(5.0, transactions.get(0).getPrice(), 1e-9);
+    assertEquals("AAPL", transactions.get(1).getSymbol());
+    assertEquals(10, transactions.get(1).getQuantity(), 1e-9);
+    assertNull(transactions.get(1).getPrice());
+    assertEquals("2022-02-01", transactions.get(2).getDate());
+    assertEquals(100.0, transactions.get(2).getPrice(), 1e-9);
+  }
+
+  @Test
+  public void testCompacted() throws IOException {
+    assertEquals("5f3a", read("{\"Buy\":[],\"Sell\":[],\"Compacted\":\"5f3a\"}"));
+    assertEquals(0, transactions.size());
+  }
+
+  @Test(expected = RuntimeException.class)
+  public void testMalformed() throws IOException {
+    read("{\"Buy\":[{\"Symbol\":\"AAPL\",");
+  }
+}
@@ -0,0 +1,162 @@
+package model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static model.TestData.trade;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * JUnit test class to test the in-memory portfolio repository against portfolio files in a
+ * temporary directory.
+ */
+public class PortfolioRepositoryTest {
+
+  private File directory;
+  private Properties properties;
+
+  @Before
+  public void setUp() throws IOException {
+    directory = TestData.directory("repository");
+    properties = new Properties();
+    properties.setProperty("portfolio_flush_delay_ms", "0");
+  }
+
+  private File portfolioFile(String name, double quantity) throws IOException {
+    File file = new File(directory, name);
+    file.createNewFile();
+    new JsonReadWrite(properties).writeToFile(file, trade("AAPL", quantity, "2022-01-03", 'b'));
+    return file;
+  }
+
+  private List<Double> onDisk(File file) {
+    Portfolio query = new Portfolio();
+    query.setDate("2022-12-31");
+    return new JsonReadWrite(properties).readFromFile(file, query).getQuantity();
+  }
+
+  @Test
+  public void testWritesThrough() throws IOException {
+    PortfolioRepository repository = new PortfolioRepository(properties);
+    File file = portfolioFile("pf.json", 1);
+
+    repository.write(file, trade("AAPL", 4, "2022-02-01", 'b'));
+    assertEquals(Arrays.asList(1.0, 4.0), onDisk(file));
+  }
+
+  @Test
+  public void testWriteBehind() throws IOException {
+    properties.setProperty("portfolio_flush_delay_ms", "60000");
+    PortfolioRepository repository = new PortfolioRepository(properties);
+    File file = portfolioFile("pf.json", 1);
+
+    repository.write(file, trade("AAPL", 4, "2022-02-01", 'b'));
+    repository.write(file, trade("AAPL", 2, "2022-03-01", 's'));
+    assertEquals(Arrays.asList(3.0), repository.readHoldings(file, "2022-12-01").getQuantity());
+    assertEquals(Arrays.asList(1.0), onDisk(file));
+
+    repository.flush();
+    assertEquals(Arrays.asList(-2.0, 1.0, 4.0), onDisk(file));
+  }
+
+  @Test
+  public void testGroupCommit() throws Exception {
+    PortfolioRepository repository = new PortfolioRepository(properties);
+    List<File> files = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      files.add(portfolioFile("pf" + i + ".json", 1));
+    }
+
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 8; t++) {
+      File file = files.get(t % files.size());
+      threads.add(new Thread(() -> {
+        for (int i = 0; i < 25; i++) {
+          repository.write(file, trade("AAPL", 1, "2022-02-01", 'b'));
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    for (File file : files) {
+      List<Double> quantities = onDisk(file);
+      assertEquals(51, quantities.size());
+      assertEquals(51.0, quantities.stream().mapToDouble(Double::doubleValue).sum(), 1e-9);
+    }
+  }
+
+  @Test
+  public void testFlushFailureSurfacesOnNextWrite() throws Exception {
+    properties.setProperty("portfolio_flush_delay_ms", "10");
+    PortfolioRepository repository = new PortfolioRepository(properties);
+    File file = portfolioFile("pf.json", 1);
+    File meta = new File(directory, ".meta");
+    new TransactionLog(file).delete();
+    meta.delete();
+    assertTrue(meta.createNewFile());
+
+    repository.write(file, trade("AAPL", 4, "2022-02-01", 'b'));
+    Thread.sleep(500);
+    try {
+      repository.write(file, trade("AAPL", 2, "2022-03-01", 'b'));
+      fail("the failed background write was not reported");
+    } catch (RuntimeException e) {
+      assertEquals(Arrays.asList(5.0),
+              repository.readHoldings(file, "2022-12-01").getQuantity());
+    }
+
+    assertTrue(meta.delete());
+    repository.write(file, trade("AAPL", 2, "2022-03-01", 'b'));
+    repository.flush();
+    assertEquals(Arrays.asList(1.0, 4.0, 2.0), onDisk(file));
+  }
+
+  @Test
+  public void testEvictsLeastRecentlyUsed() throws IOException {
+    properties.setProperty("portfolio_cache_max_entries", "1");
+    PortfolioRepository repository = new PortfolioRepository(properties);
+    File first = portfolioFile("first.json", 1);
+    File second = portfolioFile("second.json", 2);
+    AtomicInteger computed = new AtomicInteger();
+
+    repository.memoize(first, "value", computed::incrementAndGet);
+    repository.memoize(first, "value", computed::incrementAndGet);
+    assertEquals(1, computed.get());
+
+    repository.readHoldings(second, "2022-12-01");
+    repository.memoize(first, "value", computed::incrementAndGet);
+    assertEquals(2, computed.get());
+  }
+
+  @Test
+  public void testKeepsPendingTrades() throws IOException {
+    properties.setProperty("portfolio_cache_max_entries", "1");
+    properties.setProperty("portfolio_flush_delay_ms", "60000");
+    PortfolioRepository repository = new PortfolioRepository(properties);
+    File first = portfolioFile("first.json", 1);
+    File second = portfolioFile("second.json", 2);
+
+    repository.write(first, trade("AAPL", 4, "2022-02-01", 'b'));
+    assertEquals(Arrays.asList(2.0),
+            repository.readHoldings(second, "2022-12-01").getQuantity());
+    assertEquals(Arrays.asList(5.0), repository.readHoldings(first, "2022-12-01").getQuantity());
+
+    repository.flush();
+    assertEquals(Arrays.asList(1.0, 4.0), onDisk(first));
+  }
+}
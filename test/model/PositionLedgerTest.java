@@ -0,0 +1,55 @@
+package model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static model.TestData.day;
+import static model.TestData.history;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * JUnit test class to test the position ledger in isolation.
+ */
+public class PositionLedgerTest {
+
+  private PositionLedger ledger;
+
+  @Before
+  public void setUp() {
+    PortfolioHistory history = history(
+            new Transaction('b', "AAPL", 10, "2022-02-01", 100.0),
+            new Transaction('b', "AAPL", 5, "2022-01-10", 100.0),
+            new Transaction('b', "MSFT", 3, "2022-03-01", 100.0),
+            new Transaction('s', "AAPL", 4, "2022-02-15", 5.0));
+    ledger = PositionLedger.build(history);
+  }
+
+  @Test
+  public void testIsDateValid() {
+    assertTrue(ledger.isDateValid("AAPL", day("2022-01-10")));
+    assertTrue(ledger.isDateValid("MSFT", day("2022-01-10")));
+    assertFalse(ledger.isDateValid("AAPL", day("2022-01-09")));
+    assertFalse(ledger.isDateValid("GOOG", day("2022-05-01")));
+  }
+
+  @Test
+  public void testIsDatePrecedence() {
+    assertTrue(ledger.isDatePrecedence("AAPL", day("2022-02-15")));
+    assertFalse(ledger.isDatePrecedence("AAPL", day("2022-02-14")));
+    assertTrue(ledger.isDatePrecedence("MSFT", day("2022-01-01")));
+  }
+
+  @Test
+  public void testGetQuantity() {
+    assertEquals(0, ledger.getQuantity("AAPL", day("2022-01-09")));
+    assertEquals(5, ledger.getQuantity("AAPL", day("2022-01-31")));
+    assertEquals(15, ledger.getQuantity("AAPL", day("2022-02-14")));
+    assertEquals(11, ledger.getQuantity("AAPL", day("2022-02-15")));
+
+    ledger.add(new Transaction('b', "AAPL", 2, "2022-01-20", 100.0));
+    assertEquals(7, ledger.getQuantity("AAPL", day("2022-01-31")));
+    assertEquals(13, ledger.getQuantity("AAPL", day("2022-03-01")));
+  }
+}
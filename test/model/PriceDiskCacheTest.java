@@ -0,0 +1,67 @@
+package model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Properties;
+
+import static model.TestData.day;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * JUnit test class to test the price series stored on disk in a temporary directory.
+ */
+public class PriceDiskCacheTest {
+
+  private File directory;
+  private PriceDiskCache cache;
+
+  @Before
+  public void setUp() throws IOException {
+    directory = new File(TestData.directory("prices"), "price_cache");
+    Properties properties = new Properties();
+    properties.setProperty("price_cache_dir", directory.getPath());
+    cache = new PriceDiskCache(properties);
+  }
+
+  @Test
+  public void testStoreAndLoad() {
+    int[] days = {day("2022-11-22"), day("2022-11-23"), day("2022-11-25")};
+    PriceSeries series = new PriceSeries(days, new double[]{1, 2, 3}, new double[]{4, 5, 6},
+            new double[]{7, 8, 9}, new double[]{150.18, 151.07, 148.11},
+            new double[]{1e6, 2e6, 3e6});
+    cache.store("AAPL_DAILY", series);
+
+    PriceSeries loaded = cache.load("AAPL_DAILY");
+    assertEquals(3, loaded.size());
+    for (int i = 0; i < 3; i++) {
+      assertEquals(days[i], loaded.getDay(i));
+      assertEquals(series.getOpen(i), loaded.getOpen(i), 0);
+      assertEquals(series.getHigh(i), loaded.getHigh(i), 0);
+      assertEquals(series.getLow(i), loaded.getLow(i), 0);
+      assertEquals(series.getClose(i), loaded.getClose(i), 0);
+      assertEquals(series.getVolume(i), loaded.getVolume(i), 0);
+    }
+    assertTrue(cache.isFresh("AAPL_DAILY", loaded));
+    assertEquals(1, directory.list().length);
+  }
+
+  @Test
+  public void testNothingStored() {
+    assertNull(cache.load("AAPL_DAILY"));
+  }
+
+  @Test
+  public void testDamagedFile() throws IOException {
+    assertTrue(directory.mkdirs());
+    Files.write(new File(directory, "AAPL_DAILY.bin").toPath(),
+            "not a series".getBytes(StandardCharsets.UTF_8));
+    assertNull(cache.load("AAPL_DAILY"));
+  }
+}
@@ -0,0 +1,112 @@
+package model;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * JUnit test class to test the columnar price store in isolation.
+ */
+public class PriceSeriesTest {
+
+  private static final String CSV = "timestamp,open,high,low,close,volume\n"
+          + "2022-11-30,10.0,12.0,9.0,11.0,1000\n"
+          + "2022-11-29,9.0,10.5,8.5,10.0,900\n"
+          + "2022-11-25,8.0,9.5,7.5,9.0,800\n";
+
+  private PriceSeries series() throws IOException {
+    return PriceSeries.fromCsv(new BufferedReader(new StringReader(CSV)));
+  }
+
+  @Test
+  public void testFromCsvSortsAscending() throws IOException {
+    PriceSeries series = series();
+
+    assertEquals(3, series.size());
+    assertEquals("2022-11-25", PriceSeries.toDateString(series.getDay(0)));
+    assertEquals("2022-11-30", PriceSeries.toDateString(series.getDay(2)));
+    assertEquals(11.0, series.getClose(2), 0.0);
+    assertEquals(1000.0, series.getVolume(2), 0.0);
+  }
+
+  @Test
+  public void testCloseAsOf() throws IOException {
+    PriceSeries series = series();
+
+    assertEquals(10.0, series.closeAsOf(PriceSeries.toEpochDay("2022-11-29")), 0.0);
+    assertEquals(9.0, series.closeAsOf(PriceSeries.toEpochDay("2022-11-27")), 0.0);
+    assertEquals(11.0, series.closeAsOf(PriceSeries.toEpochDay("2022-12-05")), 0.0);
+    assertEquals(-1.0, series.closeAsOf(PriceSeries.toEpochDay("2022-11-24")), 0.0);
+  }
+
+  @Test
+  public void testIndexAsOf() throws IOException {
+    PriceSeries series = series();
+
+    assertEquals(-1, series.indexAsOf(PriceSeries.toEpochDay("2022-01-01")));
+    assertEquals(0, series.indexAsOf(PriceSeries.toEpochDay("2022-11-25")));
+    assertEquals(0, series.indexAsOf(PriceSeries.toEpochDay("2022-11-28")));
+    assertEquals(1, series.indexAsOf(PriceSeries.toEpochDay("2022-11-29")));
+    assertEquals(2, series.indexAsOf(PriceSeries.toEpochDay("2023-01-01")));
+  }
+
+  @Test
+  public void testMonthEndIndex() throws IOException {
+    PriceSeries series = series();
+
+    assertEquals(2, series.monthEndIndex(PriceSeries.toEpochDay("2022-11-01")));
+    assertEquals(2, series.monthEndIndex(PriceSeries.toEpochDay("2022-11-30")));
+    assertEquals(-1, series.monthEndIndex(PriceSeries.toEpochDay("2022-10-31")));
+    assertEquals(-1, series.monthEndIndex(PriceSeries.toEpochDay("2022-12-01")));
+  }
+
+  @Test
+  public void testMonthKey() {
+    assertEquals(2022 * 12 + 10, PriceSeries.monthKey(PriceSeries.toEpochDay("2022-11-01")));
+    assertEquals(2022 * 12 + 11, PriceSeries.monthKey(PriceSeries.toEpochDay("2022-12-31")));
+    assertEquals(2000 * 12 + 1, PriceSeries.monthKey(PriceSeries.toEpochDay("2000-02-29")));
+    assertEquals(1970 * 12, PriceSeries.monthKey(0));
+  }
+
+  @Test
+  public void testEpochDay() {
+    assertEquals(0, PriceSeries.toEpochDay("1970-01-01"));
+    assertEquals(19326, PriceSeries.toEpochDay("2022-11-30"));
+    assertEquals("2000-02-29", PriceSeries.toDateString(PriceSeries.toEpochDay("2000-02-29")));
+  }
+
+  private static PriceSeries series(String... dates) {
+    int[] days = new int[dates.length];
+    double[] close = new double[dates.length];
+    for (int i = 0; i < dates.length; i++) {
+      days[i] = PriceSeries.toEpochDay(dates[i]);
+      close[i] = 20.0 + i;
+    }
+    return new PriceSeries(days, close, close, close, close, close);
+  }
+
+  @Test
+  public void testAppend() throws IOException {
+    PriceSeries newer = series("2022-11-29", "2022-12-01");
+    assertTrue(series().overlaps(newer));
+
+    PriceSeries merged = series().append(newer);
+    assertEquals(3, merged.size());
+    assertEquals(9.0, merged.getClose(0), 0.0);
+    assertEquals(20.0, merged.closeAsOf(PriceSeries.toEpochDay("2022-11-30")), 0.0);
+    assertEquals(21.0, merged.getClose(2), 0.0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testAppendWithoutOverlap() throws IOException {
+    PriceSeries newer = series("2022-12-05", "2022-12-06");
+    assertFalse(series().overlaps(newer));
+    series().append(newer);
+  }
+}
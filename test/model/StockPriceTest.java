@@ -0,0 +1,72 @@
+package model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * JUnit test class to test how StockPrice keeps the trading calendar, using csv price files in a
+ * temporary directory.
+ */
+public class StockPriceTest {
+
+  private static final String CSV = "timestamp,open,high,low,close,volume\n"
+          + "2022-11-30,1,1,1,11.0,100\n"
+          + "2022-11-29,1,1,1,10.0,100\n";
+
+  private File directory;
+  private Properties properties;
+
+  @Before
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("prices").toFile();
+    properties = new Properties();
+    properties.setProperty("price_provider", "csv");
+    properties.setProperty("price_provider_dir", directory.getPath());
+    properties.setProperty("calendar_symbol", "AAPL");
+    properties.setProperty("price_cache_max_symbols", "1");
+  }
+
+  private void writePrices(String symbol) throws IOException {
+    Files.writeString(new File(directory, symbol + ".csv").toPath(), CSV);
+  }
+
+  @Test
+  public void testCalendarFailureIsRemembered() throws IOException {
+    StockPrice stockPrice = new StockPrice(properties);
+    for (int i = 0; i < 2; i++) {
+      try {
+        stockPrice.getTradingCalendar(properties);
+        fail("Exception should have been thrown");
+      } catch (RuntimeException e) {
+        assertEquals("No price data found for AAPL", e.getMessage());
+      }
+      writePrices("AAPL");
+    }
+    assertEquals(1, stockPrice.getCacheStats().getMissCount());
+  }
+
+  @Test
+  public void testCalendarFollowsReloadedSeries() throws IOException {
+    writePrices("AAPL");
+    writePrices("MSFT");
+    StockPrice stockPrice = new StockPrice(properties);
+
+    TradingCalendar calendar = stockPrice.getTradingCalendar(properties);
+    assertTrue(calendar.isTradingDay(PriceSeries.toEpochDay("2022-11-29")));
+    assertSame(calendar, stockPrice.getTradingCalendar(properties));
+
+    stockPrice.getStockPriceByApi("MSFT", "2022-11-30", properties);
+    assertNotSame(calendar, stockPrice.getTradingCalendar(properties));
+  }
+}
@@ -0,0 +1,68 @@
+package model;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Helper class holding the fixtures shared by the model tests.
+ */
+final class TestData {
+
+  private TestData() {
+  }
+
+  /**
+   * returns the epoch day of a date.
+   *
+   * @param date date in yyyy-MM-dd format.
+   * @return days since 1970-01-01.
+   */
+  static int day(String date) {
+    return PriceSeries.toEpochDay(date);
+  }
+
+  /**
+   * returns the history of a portfolio with the given transactions.
+   *
+   * @param transactions buys and sells of the portfolio in any order.
+   * @return history holding the transactions.
+   */
+  static PortfolioHistory history(Transaction... transactions) {
+    PortfolioHistory history = new PortfolioHistory();
+    for (Transaction transaction : transactions) {
+      history.add(transaction);
+    }
+    return history;
+  }
+
+  /**
+   * returns a portfolio object to buy or sell one stock at a price of 10.
+   *
+   * @param symbol   symbol of the stock.
+   * @param quantity quantity bought or sold.
+   * @param date     date of the trade in yyyy-MM-dd format.
+   * @param op       'b' to buy, 's' to sell.
+   * @return portfolio object of the trade.
+   */
+  static Portfolio trade(String symbol, double quantity, String date, char op) {
+    Portfolio pf = new Portfolio(new ArrayList<>(List.of(symbol)),
+            new ArrayList<>(List.of(quantity)), new ArrayList<>(List.of(10.0)));
+    pf.setDate(date);
+    pf.setOperation(op);
+    return pf;
+  }
+
+  /**
+   * creates an empty temporary directory.
+   *
+   * @param prefix prefix of the name of the directory.
+   * @return created directory.
+   * @throws IOException when the directory cannot be created.
+   */
+  static File directory(String prefix) throws IOException {
+    return Files.createTempDirectory(prefix).toFile();
+  }
+}
@@ -0,0 +1,63 @@
+package model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static model.TestData.day;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * JUnit test class to test the trading calendar in isolation.
+ */
+public class TradingCalendarTest {
+
+  private TradingCalendar calendar;
+
+  @Before
+  public void setUp() {
+    String[] dates = {"2022-10-28", "2022-10-31", "2022-11-01", "2022-11-23", "2022-11-25",
+        "2022-11-28", "2022-11-30"};
+    int[] days = new int[dates.length];
+    double[] prices = new double[dates.length];
+    for (int i = 0; i < dates.length; i++) {
+      days[i] = day(dates[i]);
+      prices[i] = i;
+    }
+    calendar = new TradingCalendar(new PriceSeries(days, prices, prices, prices, prices,
+            prices));
+  }
+
+  @Test
+  public void testIsTradingDay() {
+    assertTrue(calendar.isTradingDay(day("2022-11-23")));
+    assertFalse(calendar.isTradingDay(day("2022-11-24")));
+    assertFalse(calendar.isTradingDay(day("2022-11-26")));
+    assertTrue(calendar.isTradingDay(day("2022-12-01")));
+    assertFalse(calendar.isTradingDay(day("2022-12-03")));
+  }
+
+  @Test
+  public void testPreviousTradingDay() {
+    assertEquals(day("2022-11-23"), calendar.previousTradingDay(day("2022-11-24")));
+    assertEquals(day("2022-11-25"), calendar.previousTradingDay(day("2022-11-27")));
+    assertEquals(-1, calendar.previousTradingDay(day("2022-10-27")));
+  }
+
+  @Test
+  public void testMonthEnd() {
+    assertEquals(day("2022-10-31"), calendar.monthEnd(day("2022-10-01")));
+    assertEquals(day("2022-11-30"), calendar.monthEnd(day("2022-11-15")));
+    assertEquals(-1, calendar.monthEnd(day("2022-09-15")));
+  }
+
+  @Test
+  public void testNextTradingDaysAndBetween() {
+    assertArrayEquals(new int[]{day("2022-11-25"), day("2022-11-28")},
+            calendar.nextTradingDays(day("2022-11-24"), 2));
+    assertEquals(3, calendar.tradingDaysBetween(day("2022-11-01"), day("2022-11-28")));
+    assertEquals(0, calendar.tradingDaysBetween(day("2022-11-26"), day("2022-11-27")));
+  }
+}
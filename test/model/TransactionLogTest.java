@@ -0,0 +1,88 @@
+package model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * JUnit test class to test the transaction log in isolation.
+ */
+public class TransactionLogTest {
+
+  private File portfolioFile;
+  private TransactionLog log;
+
+  @Before
+  public void setUp() throws IOException {
+    portfolioFile = new File(Files.createTempDirectory("log").toFile(), "pf.json");
+    log = new TransactionLog(portfolioFile);
+    log.append(Arrays.asList(new Transaction('b', "AAPL", 10, "2022-01-03", 100.0),
+            new Transaction('s', "AAPL", 4, "2022-03-01", null)));
+  }
+
+  private void write(String text) throws IOException {
+    File logFile = new File(new File(portfolioFile.getParentFile(), ".meta"),
+            portfolioFile.getName() + ".log");
+    try (FileOutputStream fos = new FileOutputStream(logFile, true)) {
+      fos.write(text.getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  @Test
+  public void testRead() {
+    List<Transaction> transactions = log.read();
+    assertEquals(2, transactions.size());
+    assertEquals("AAPL", transactions.get(0).getSymbol());
+    assertEquals(100.0, transactions.get(0).getPrice(), 1e-9);
+    assertEquals(4, transactions.get(1).getQuantity(), 1e-9);
+    assertEquals(null, transactions.get(1).getPrice());
+  }
+
+  @Test
+  public void testTruncatedTail() throws IOException {
+    write("b,MSFT,5.0,2022-0");
+    assertEquals(2, log.read().size());
+
+    log.append(Arrays.asList(new Transaction('b', "MSFT", 5, "2022-03-15", 200.0)));
+    List<Transaction> transactions = log.read();
+    assertEquals(3, transactions.size());
+    assertEquals("MSFT", transactions.get(2).getSymbol());
+  }
+
+  @Test
+  public void testUnparsableTail() throws IOException {
+    write("b,MSFT,5.0\n");
+    assertEquals(2, log.read().size());
+
+    log.append(Arrays.asList(new Transaction('b', "MSFT", 5, "2022-03-15", 200.0)));
+    assertEquals(3, log.read().size());
+  }
+
+  @Test
+  public void testReadAfterMark() {
+    String mark = log.getMark();
+    assertEquals(0, log.readAfter(mark).size());
+
+    log.append(Arrays.asList(new Transaction('b', "MSFT", 5, "2022-03-15", 200.0)));
+    List<Transaction> transactions = log.readAfter(mark);
+    assertEquals(1, transactions.size());
+    assertEquals("MSFT", transactions.get(0).getSymbol());
+    assertEquals(3, log.readAfter("5f3a@10").size());
+    assertEquals(0, log.readAfter(log.getId()).size());
+  }
+
+  @Test(expected = RuntimeException.class)
+  public void testDamagedMiddle() throws IOException {
+    write("b,MSFT,x,2022-03-15,\nb,MSFT,5.0,2022-03-15,200.0\n");
+    log.read();
+  }
+}